@@ -1,11 +1,16 @@
 plugins {
     id("java")
     application
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "edu.kit.kastel.logic"
 version = "1.0-SNAPSHOT"
 
+// The lexer skips whitespace and comments with the Vector API when this incubator module is present.
+// The JVM warns about incubator modules on every start, so the launcher only adds it with VECTOR_API=on.
+val vectorModule = "--add-modules=jdk.incubator.vector"
+
 application {
     mainModule = "edu.kit.kastel.vads.compiler"
     mainClass = "edu.kit.kastel.vads.compiler.Main"
@@ -19,12 +24,68 @@ dependencies {
     implementation("org.jspecify:jspecify:1.0.0")
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 java {
     toolchain.languageVersion = JavaLanguageVersion.of(24)
 }
 
+tasks.withType<JavaCompile>().configureEach {
+    // module-info requires the Vector API statically, javac would warn about the incubator module on every build
+    options.compilerArgs.add("-Xlint:-incubating")
+}
+
+tasks.startScripts {
+    // Let the launcher pick up the ahead-of-time cache created by train.sh
+    val launcher = file("src/main/aot/launcher.sh")
+    inputs.file(launcher)
+    doLast {
+        val script = unixScript.readText()
+        val defaults = Regex("(?m)^DEFAULT_JVM_OPTS=.*$").find(script)
+            ?: throw GradleException("DEFAULT_JVM_OPTS not found in the start script")
+        val end = defaults.range.last + 1
+        unixScript.writeText(script.substring(0, end) + "\n" + launcher.readText() + script.substring(end))
+    }
+}
+
+jmh {
+    jmhVersion = "1.37"
+    jvmArgsAppend = listOf(vectorModule)
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
+
+tasks.register<JavaExec>("scalingReport") {
+    description = "Compiles generated stress programs of growing size and reports the cost of every phase."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "edu.kit.kastel.vads.compiler.benchmark.ScalingReport"
+    jvmArgs(vectorModule)
+    args(layout.buildDirectory.file("reports/scaling/scaling.csv").get().asFile)
+}
+
+tasks.register<JavaExec>("runtimeBenchmark") {
+    description = "Runs the binaries compiled from the runtime corpus and compares them against the baseline."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "edu.kit.kastel.vads.compiler.benchmark.RuntimeBenchmark"
+    args(file("src/jmh/runtime"), file("src/jmh/runtime/baseline.csv"))
+    if (project.hasProperty("updateBaseline")) {
+        args("--update")
+    }
+}
+
+tasks.register<JavaExec>("startupBenchmark") {
+    description = "Compares the startup of the installed compiler with and without the ahead-of-time cache."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "edu.kit.kastel.vads.compiler.benchmark.StartupBenchmark"
+    // installDist would delete the cache, so the installation is expected to be trained already
+    args(layout.buildDirectory.file("install/compiler/bin/compiler").get().asFile, file("src/main/aot/training.l2"))
+    args(fileTree("src/jmh/runtime") { include("*.l2") }.files.sorted())
+}
+
 tasks.test {
     useJUnitPlatform()
 }
\ No newline at end of file
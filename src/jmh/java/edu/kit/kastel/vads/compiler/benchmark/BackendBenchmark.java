@@ -0,0 +1,90 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.Timings;
+import edu.kit.kastel.vads.compiler.backend.aasm.CodeGenerator;
+import edu.kit.kastel.vads.compiler.backend.aasm.NodeOrderGenerator;
+import edu.kit.kastel.vads.compiler.backend.regalloc.AasmRegisterAllocator;
+import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.optimizer.SemanticOptimization;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/// SSA translation, instruction ordering, register allocation and code generation.
+/// Every phase works on the output of the previous phases, prepared once per trial.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class BackendBenchmark {
+    private static final Timings TIMINGS = Timings.of("benchmark");
+
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    private List<FunctionTree> functions;
+    private List<IrGraph> graphs;
+    private List<NodeOrderGenerator> orders;
+
+    @Setup
+    public void prepare() {
+        ProgramTree program = SemanticBenchmark.parse(ProgramGenerator.forSize(this.size));
+        new SemanticAnalysis(program, TIMINGS).analyze();
+        new SemanticOptimization(program, TIMINGS).optimize();
+        this.functions = program.topLevelTrees();
+        this.graphs = this.functions.stream().map(BackendBenchmark::translate).toList();
+        this.orders = this.graphs.stream().map(NodeOrderGenerator::new).toList();
+    }
+
+    private static IrGraph translate(FunctionTree function) {
+        return new SsaTranslation(function, new LocalValueNumbering()).translate();
+    }
+
+    @Benchmark
+    public void ssaTranslation(Blackhole blackhole) {
+        for (FunctionTree function : this.functions) {
+            blackhole.consume(translate(function));
+        }
+    }
+
+    @Benchmark
+    public void nodeOrderGenerator(Blackhole blackhole) {
+        for (IrGraph graph : this.graphs) {
+            blackhole.consume(new NodeOrderGenerator(graph));
+        }
+    }
+
+    @Benchmark
+    public void allocateRegisters(Blackhole blackhole) {
+        for (NodeOrderGenerator order : this.orders) {
+            Map<Node, Register> registers = new AasmRegisterAllocator().allocateRegisters(order);
+            blackhole.consume(registers);
+        }
+    }
+
+    @Benchmark
+    public String generateCode() {
+        return new CodeGenerator().generateCode(this.graphs, TIMINGS);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Token;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/// Lexing and parsing.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class FrontendBenchmark {
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    private byte[] source;
+
+    @Setup
+    public void generate() {
+        this.source = ProgramGenerator.forSize(this.size).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /// The parser consumes its token source, so every invocation needs a fresh one.
+    @State(Scope.Thread)
+    public static class Tokens {
+        TokenSource tokenSource;
+
+        @Setup(Level.Invocation)
+        public void lex(FrontendBenchmark benchmark) {
+            this.tokenSource = new TokenSource(Lexer.forBytes(benchmark.source));
+        }
+    }
+
+    @Benchmark
+    public void lexerNextToken(Blackhole blackhole) {
+        Lexer lexer = Lexer.forBytes(this.source);
+        Optional<Token> token;
+        while ((token = lexer.nextToken()).isPresent()) {
+            blackhole.consume(token.get());
+        }
+    }
+
+    @Benchmark
+    public TokenSource tokenSource() {
+        return new TokenSource(Lexer.forBytes(this.source));
+    }
+
+    @Benchmark
+    public ProgramTree parseProgram(Tokens tokens) {
+        return new Parser(tokens.tokenSource).parseProgram();
+    }
+
+    @Benchmark
+    public ProgramTree streamingParseProgram() {
+        return new Parser(TokenSource.streaming(Lexer.forBytes(this.source))).parseProgram();
+    }
+}
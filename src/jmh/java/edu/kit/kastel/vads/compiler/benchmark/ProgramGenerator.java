@@ -0,0 +1,98 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import java.util.Random;
+
+/// Generates valid, deterministic programs of a given number of statements.
+///
+/// The programs consist of a single `main` function mixing declarations, assignments,
+/// conditionals, loops and ternaries over previously declared variables.
+/// Division and modulo only use non-zero constant divisors, so the programs never trap.
+public final class ProgramGenerator {
+    private static final String[] ARITHMETIC = {"+", "-", "*", "&", "|", "^"};
+    private static final String[] COMPARISON = {"<", "<=", ">", ">=", "==", "!="};
+
+    private final Random random;
+    private final StringBuilder builder = new StringBuilder();
+    private int variables;
+    private int loops;
+
+    private ProgramGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /// {@return the program for one of the sizes `small`, `medium` and `huge`}
+    public static String forSize(String size) {
+        return generate(switch (size) {
+            case "small" -> 20;
+            case "medium" -> 200;
+            case "huge" -> 1_000;
+            default -> throw new IllegalArgumentException("Unknown program size " + size);
+        }, 42);
+    }
+
+    public static String generate(int statements, long seed) {
+        ProgramGenerator generator = new ProgramGenerator(seed);
+        generator.program(statements);
+        return generator.builder.toString();
+    }
+
+    private void program(int statements) {
+        this.builder.append("int main() {\n");
+        declaration();
+        for (int i = 1; i < statements; i++) {
+            switch (this.random.nextInt(5)) {
+                case 0 -> declaration();
+                case 1 -> this.builder.append("  %s %s= %s;\n".formatted(variable(), operator(), expression(2)));
+                case 2 -> this.builder.append("  if (%s) { %s = %s; } else { %s += %s; }\n".formatted(
+                    condition(), variable(), expression(2), variable(), expression(1)));
+                case 3 -> {
+                    String counter = "i" + this.loops++;
+                    this.builder.append("  for (int %s = 0; %s < %d; %s += 1) { %s ^= %s + %s; }\n".formatted(
+                        counter, counter, 2 + this.random.nextInt(8), counter, variable(), counter, expression(1)));
+                }
+                default -> this.builder.append("  %s = %s ? %s : %s;\n".formatted(
+                    variable(), condition(), expression(1), expression(1)));
+            }
+        }
+        this.builder.append("  return %s %% 256;\n}\n".formatted(variable()));
+    }
+
+    private void declaration() {
+        String value = this.variables == 0 ? literal() : expression(2);
+        this.builder.append("  int v%d = %s;\n".formatted(this.variables++, value));
+    }
+
+    private String expression(int depth) {
+        if (depth == 0 || this.random.nextInt(3) == 0) {
+            return this.random.nextBoolean() ? variable() : literal();
+        }
+        return switch (this.random.nextInt(4)) {
+            case 0 -> "(%s / %d)".formatted(expression(depth - 1), 1 + this.random.nextInt(16));
+            case 1 -> "(%s %% %d)".formatted(expression(depth - 1), 1 + this.random.nextInt(16));
+            case 2 -> "(%s << %d)".formatted(expression(depth - 1), this.random.nextInt(8));
+            default -> "(%s %s %s)".formatted(expression(depth - 1), operator(), expression(depth - 1));
+        };
+    }
+
+    private String condition() {
+        String comparison = "%s %s %s".formatted(
+            expression(1), COMPARISON[this.random.nextInt(COMPARISON.length)], expression(1));
+        return switch (this.random.nextInt(3)) {
+            case 0 -> "%s && %s > %s".formatted(comparison, variable(), literal());
+            case 1 -> "%s || !(%s == %s)".formatted(comparison, variable(), literal());
+            default -> comparison;
+        };
+    }
+
+    private String operator() {
+        return ARITHMETIC[this.random.nextInt(ARITHMETIC.length)];
+    }
+
+    private String variable() {
+        return "v" + this.random.nextInt(this.variables);
+    }
+
+    private String literal() {
+        return Integer.toString(this.random.nextInt(1000));
+    }
+}
@@ -0,0 +1,299 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.Compilation;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/// Measures how fast the binaries produced by the compiler run, and compares them against a baseline.
+///
+/// Every program of the corpus is compiled with the current code generator and run repeatedly.
+/// The median wall time, CPU time, retired instructions and cycles are recorded,
+/// the latter two only if `perf` is available.
+/// Without it, the CPU time is read from the kernel's accounting of reaped children,
+/// which only has the resolution of a clock tick.
+///
+/// A program regresses if its exit code changes or if it needs notably more instructions than in the baseline.
+/// Instruction counts barely depend on the machine, timings do,
+/// so they only count as a regression if the baseline was recorded on the same host.
+/// On other hosts the timings are only printed for comparison.
+///
+/// Usage: `RuntimeBenchmark <corpus directory> <baseline> [--update]`
+public final class RuntimeBenchmark {
+    private static final Pattern SOURCE_FILE = Pattern.compile("(.+)\\.l\\d+");
+    private static final int RUNS = 10;
+    private static final double TIME_TOLERANCE = 0.10;
+    private static final double INSTRUCTION_TOLERANCE = 0.01;
+    private static final long UNKNOWN = -1;
+    private static final String HEADER = "program,exitCode,wallNanos,cpuNanos,instructions,cycles";
+    private static final String HOST_PREFIX = "# recorded on ";
+    private static final long NANOS_PER_TICK = 1_000_000_000L / clockTicks();
+
+    private record Result(String program, int exitCode, long wallNanos, long cpuNanos, long instructions,
+                          long cycles) {
+        static Result parse(String line) {
+            String[] fields = line.split(",");
+            return new Result(fields[0], Integer.parseInt(fields[1]), Long.parseLong(fields[2]),
+                Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]));
+        }
+
+        String format() {
+            return "%s,%d,%d,%d,%d,%d".formatted(this.program, this.exitCode, this.wallNanos, this.cpuNanos,
+                this.instructions, this.cycles);
+        }
+    }
+
+    /// A single run of a binary.
+    private record Run(int exitCode, long wallNanos, long cpuNanos, long instructions, long cycles) {
+    }
+
+    private final boolean perf;
+
+    private RuntimeBenchmark(boolean perf) {
+        this.perf = perf;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || args.length > 3 || (args.length == 3 && !args[2].equals("--update"))) {
+            System.err.println("Usage: RuntimeBenchmark <corpus directory> <baseline> [--update]");
+            System.exit(Compilation.INVALID_ARGUMENTS);
+        }
+        Path corpus = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        boolean update = args.length == 3;
+
+        RuntimeBenchmark benchmark = new RuntimeBenchmark(perfAvailable());
+        if (!benchmark.perf) {
+            System.out.println("perf is not available, instructions and cycles are not counted");
+        }
+        List<Result> results = new ArrayList<>();
+        Path binaries = Files.createTempDirectory("runtime-benchmark");
+        try (Stream<Path> files = Files.list(corpus)) {
+            for (Path source : files.sorted().toList()) {
+                var matcher = SOURCE_FILE.matcher(source.getFileName().toString());
+                if (matcher.matches()) {
+                    results.add(benchmark.measure(source, binaries.resolve(matcher.group(1))));
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(binaries)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(binaries);
+        }
+
+        if (update) {
+            List<String> lines = new ArrayList<>();
+            lines.add(HOST_PREFIX + host());
+            lines.add(HEADER);
+            results.forEach(result -> lines.add(result.format()));
+            Files.write(baseline, lines, StandardCharsets.UTF_8);
+            System.out.println("Updated " + baseline);
+            print(results, Map.of(), false);
+            return;
+        }
+        Map<String, Result> expected = new LinkedHashMap<>();
+        String recordedOn = "an unknown host";
+        if (Files.exists(baseline)) {
+            for (String line : Files.readAllLines(baseline, StandardCharsets.UTF_8)) {
+                if (line.startsWith(HOST_PREFIX)) {
+                    recordedOn = line.substring(HOST_PREFIX.length());
+                } else if (!line.isBlank() && !line.equals(HEADER)) {
+                    Result result = Result.parse(line);
+                    expected.put(result.program(), result);
+                }
+            }
+        }
+        boolean sameHost = recordedOn.equals(host());
+        if (!sameHost) {
+            System.out.println("The baseline was recorded on " + recordedOn + ", timings are not compared");
+        }
+        if (print(results, expected, sameHost)) {
+            System.exit(Compilation.FAILURE);
+        }
+    }
+
+    private Result measure(Path source, Path binary) throws IOException, InterruptedException {
+        String program = source.getFileName().toString();
+        int exitCode = new Compilation(source, binary).run();
+        if (exitCode != Compilation.SUCCESS) {
+            throw new IOException("Could not compile " + program + ", exit code " + exitCode);
+        }
+        // the first run loads the binary into the page cache
+        run(binary);
+        Run[] runs = new Run[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            runs[i] = run(binary);
+            if (runs[i].exitCode() != runs[0].exitCode()) {
+                throw new IOException(program + " is not deterministic");
+            }
+        }
+        return new Result(program, runs[0].exitCode(),
+            median(runs, Run::wallNanos), median(runs, Run::cpuNanos),
+            median(runs, Run::instructions), median(runs, Run::cycles));
+    }
+
+    private static long median(Run[] runs, ToLongFunction<Run> value) {
+        long[] values = Arrays.stream(runs).mapToLong(value).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private Run run(Path binary) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        if (this.perf) {
+            command.addAll(List.of("perf", "stat", "-x", ",", "-e", "instructions:u,cycles:u,task-clock", "--"));
+        }
+        command.add(binary.toString());
+        long childrenCpu = childrenCpuNanos();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        String statistics = new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+        int exitCode = process.waitFor();
+        long wall = System.nanoTime() - start;
+        if (!this.perf) {
+            return new Run(exitCode, wall, childrenCpuNanos() - childrenCpu, UNKNOWN, UNKNOWN);
+        }
+        // perf prints "<value>,<unit>,<event>,..." per event
+        long instructions = UNKNOWN;
+        long cycles = UNKNOWN;
+        long cpu = UNKNOWN;
+        for (String line : statistics.lines().toList()) {
+            String[] fields = line.split(",");
+            if (fields.length < 3 || !fields[0].matches("[0-9.]+")) {
+                continue;
+            }
+            switch (fields[2]) {
+                case "instructions:u" -> instructions = Long.parseLong(fields[0]);
+                case "cycles:u" -> cycles = Long.parseLong(fields[0]);
+                case "task-clock" -> cpu = (long) (Double.parseDouble(fields[0]) * 1_000_000);
+                default -> {
+                    // not requested
+                }
+            }
+        }
+        return new Run(exitCode, wall, cpu, instructions, cycles);
+    }
+
+    private static boolean perfAvailable() {
+        try {
+            Process process = new ProcessBuilder("perf", "stat", "-x", ",", "-e", "instructions:u", "--", "true")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            String statistics = new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+            // without access to the counters, perf succeeds but reports them as not supported
+            return process.waitFor() == 0 && statistics.matches("(?s)\\d+,.*");
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /// {@return the host name, the CPU model and the number of CPUs, which together decide the timings}
+    private static String host() throws IOException {
+        String name = Files.readString(Path.of("/proc/sys/kernel/hostname")).strip();
+        String model = Files.readAllLines(Path.of("/proc/cpuinfo")).stream()
+            .filter(line -> line.startsWith("model name"))
+            .map(line -> line.substring(line.indexOf(':') + 1).strip())
+            .findFirst()
+            .orElse("unknown CPU");
+        return "%s, %s, %d CPUs".formatted(name, model, Runtime.getRuntime().availableProcessors());
+    }
+
+    /// {@return the clock ticks per second the kernel reports CPU times in, as told by `getconf CLK_TCK`}
+    /// Falls back to 100, which the kernel uses on all common architectures, if it cannot be asked.
+    private static long clockTicks() {
+        try {
+            Process process = new ProcessBuilder("getconf", "CLK_TCK").start();
+            String ticks = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).strip();
+            if (process.waitFor() == 0 && ticks.matches("\\d+")) {
+                return Long.parseLong(ticks);
+            }
+        } catch (IOException e) {
+            // not available, use the default
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 100;
+    }
+
+    /// {@return the user and system time of all terminated and reaped children of this process}
+    private static long childrenCpuNanos() throws IOException {
+        String stat = Files.readString(Path.of("/proc/self/stat"));
+        // the command name may contain spaces, the fields after it may not
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        long ticks = Long.parseLong(fields[13]) + Long.parseLong(fields[14]);
+        return ticks * NANOS_PER_TICK;
+    }
+
+    /// Prints the results next to the baseline, timings only count if it was recorded on this host.
+    /// {@return whether any program regressed}
+    private static boolean print(List<Result> results, Map<String, Result> baseline, boolean compareTimings) {
+        boolean regressed = false;
+        StringBuilder builder = new StringBuilder();
+        builder.append("%-16s %5s %12s %8s %12s %8s %14s %8s %14s%n".formatted(
+            "program", "exit", "wall ms", "", "cpu ms", "", "instructions", "", "cycles"));
+        for (Result result : results) {
+            Result expected = baseline.get(result.program());
+            List<String> problems = new ArrayList<>();
+            if (expected != null) {
+                if (expected.exitCode() != result.exitCode()) {
+                    problems.add("exit code changed from " + expected.exitCode());
+                }
+                if (worse(result.instructions(), expected.instructions(), INSTRUCTION_TOLERANCE)) {
+                    problems.add("more instructions");
+                }
+                if (compareTimings
+                    && worse(result.wallNanos(), expected.wallNanos(), TIME_TOLERANCE)
+                    && worse(result.cpuNanos(), expected.cpuNanos(), TIME_TOLERANCE)) {
+                    problems.add("slower");
+                }
+            }
+            builder.append("%-16s %5d %12.1f %8s %12.1f %8s %14s %8s %14s".formatted(
+                result.program(), result.exitCode(),
+                result.wallNanos() / 1e6, change(result, expected, Result::wallNanos),
+                result.cpuNanos() / 1e6, change(result, expected, Result::cpuNanos),
+                count(result.instructions()), change(result, expected, Result::instructions),
+                count(result.cycles())));
+            if (expected == null) {
+                builder.append("  (not in baseline)");
+            } else if (!problems.isEmpty()) {
+                builder.append("  REGRESSION: ").append(String.join(", ", problems));
+                regressed = true;
+            }
+            builder.append("\n");
+        }
+        System.out.print(builder);
+        return regressed;
+    }
+
+    private static boolean worse(long value, long baseline, double tolerance) {
+        return value != UNKNOWN && baseline != UNKNOWN && value > baseline * (1 + tolerance);
+    }
+
+    private static String change(Result result, Result expected, ToLongFunction<Result> value) {
+        if (expected == null || value.applyAsLong(result) == UNKNOWN || value.applyAsLong(expected) <= 0) {
+            return "";
+        }
+        double change = (double) value.applyAsLong(result) / value.applyAsLong(expected) - 1;
+        return "%+.1f%%".formatted(change * 100);
+    }
+
+    private static String count(long value) {
+        return value == UNKNOWN ? "-" : Long.toString(value);
+    }
+}
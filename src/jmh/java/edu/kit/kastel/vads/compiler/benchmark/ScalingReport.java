@@ -0,0 +1,231 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.Timings;
+import edu.kit.kastel.vads.compiler.backend.aasm.CodeGenerator;
+import edu.kit.kastel.vads.compiler.backend.aasm.NodeOrderGenerator;
+import edu.kit.kastel.vads.compiler.backend.compiler.BuiltinCompiler;
+import edu.kit.kastel.vads.compiler.backend.regalloc.AasmRegisterAllocator;
+import edu.kit.kastel.vads.compiler.benchmark.StressGenerator.Dimension;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.optimizer.SemanticOptimization;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/// Compiles the programs of every [Dimension] of the [StressGenerator] at doubling sizes
+/// and tabulates the time and allocations of every phase against the size.
+///
+/// The last column estimates the exponent of the growth of each phase from the two largest sizes,
+/// i.e. about 1 for linear and 2 for quadratic phases.
+/// Every step runs in its own JVM, so it can be killed once it exceeds the time limit,
+/// and a dimension stops growing once the next step is expected to exceed it anyway.
+/// Additionally, all measurements are appended to a CSV file, to track them over time.
+///
+/// Usage: `ScalingReport <csv> [max size] [time limit in seconds]`
+public final class ScalingReport {
+    private static final String STEP = "--step";
+    private static final int MIN_SIZE = 8;
+    private static final int REPETITIONS = 3;
+
+    private record Step(int size, Map<String, Timings.Total> phases) {
+    }
+
+    private ScalingReport() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 3 && args[0].equals(STEP)) {
+            step(Dimension.valueOf(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        if (args.length < 1) {
+            System.err.println("Usage: ScalingReport <csv> [max size] [time limit in seconds]");
+            System.exit(3);
+        }
+        Path csv = Path.of(args[0]);
+        int maxSize = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        long timeLimit = args.length > 2 ? Long.parseLong(args[2]) : 30;
+
+        boolean header = Files.notExists(csv);
+        if (csv.getParent() != null) {
+            Files.createDirectories(csv.getParent());
+        }
+        long timestamp = System.currentTimeMillis() / 1000;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                out.println("timestamp,dimension,size,phase,nanos,allocatedBytes");
+            }
+            for (Dimension dimension : Dimension.values()) {
+                List<Step> steps = new ArrayList<>();
+                for (int size = MIN_SIZE; size <= maxSize; size *= 2) {
+                    Optional<Step> result = fork(dimension, size, timeLimit);
+                    if (result.isEmpty()) {
+                        break;
+                    }
+                    Step step = result.get();
+                    steps.add(step);
+                    step.phases().forEach((phase, total) -> out.printf("%d,%s,%d,%s,%d,%d%n",
+                        timestamp, dimension, step.size(), phase, total.nanos(), total.allocatedBytes()));
+                    out.flush();
+                    // assume the next step grows like the last one, superlinear phases explode quickly
+                    double nanos = nanos(step);
+                    double predicted = steps.size() > 1 ? nanos * nanos / nanos(steps.get(steps.size() - 2)) : nanos;
+                    if (predicted > TimeUnit.SECONDS.toNanos(timeLimit)) {
+                        System.out.printf("%s: time limit reached after size %d%n", dimension, size);
+                        break;
+                    }
+                }
+                print(dimension, steps);
+            }
+        }
+    }
+
+    /// Runs a single step in a new JVM with the same class path and options as this one.
+    private static Optional<Step> fork(Dimension dimension, int size, long timeLimit)
+        throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ScalingReport.class.getName(),
+            STEP, dimension.name(), Integer.toString(size)));
+        Process process = new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        // the output is only written at the very end and fits into the pipe
+        if (!process.waitFor(timeLimit, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            System.out.printf("%s: size %d exceeded the time limit%n", dimension, size);
+            return Optional.empty();
+        }
+        if (process.exitValue() != 0) {
+            System.out.printf("%s: size %d failed with exit code %d%n", dimension, size, process.exitValue());
+            return Optional.empty();
+        }
+        Map<String, Timings.Total> phases = new LinkedHashMap<>();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        for (String line : output.lines().toList()) {
+            String[] fields = line.split(",");
+            phases.put(fields[0], new Timings.Total(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+        }
+        return Optional.of(new Step(size, phases));
+    }
+
+    private static void step(Dimension dimension, int size) throws IOException {
+        Step step;
+        try {
+            // warm up the JIT, otherwise the smallest sizes are dominated by the interpreter
+            compile(dimension, MIN_SIZE);
+            step = measure(dimension, size);
+        } catch (StackOverflowError _) {
+            System.err.printf("%s: stack overflow at size %d%n", dimension, size);
+            System.exit(1);
+            return;
+        }
+        step.phases().forEach((phase, total) ->
+            System.out.printf("%s,%d,%d%n", phase, total.nanos(), total.allocatedBytes()));
+    }
+
+    /// Cheap steps are repeated and the fastest run of every phase is kept, to reduce the noise.
+    private static Step measure(Dimension dimension, int size) throws IOException {
+        Step step = new Step(size, compile(dimension, size));
+        for (int i = 1; i < REPETITIONS && nanos(step) < TimeUnit.SECONDS.toNanos(1); i++) {
+            Map<String, Timings.Total> phases = new LinkedHashMap<>(step.phases());
+            compile(dimension, size).forEach((phase, total) -> phases.merge(phase, total,
+                (a, b) -> a.nanos() <= b.nanos() ? a : b));
+            step = new Step(size, phases);
+        }
+        return step;
+    }
+
+    private static long nanos(Step step) {
+        return Math.max(1, step.phases().values().stream().mapToLong(Timings.Total::nanos).sum());
+    }
+
+    private static Map<String, Timings.Total> compile(Dimension dimension, int size) throws IOException {
+        String source = StressGenerator.generate(dimension, size);
+        Timings timings = Timings.recording(dimension + "-" + size);
+
+        TokenSource tokenSource = timings.time("Lexer", () -> new TokenSource(Lexer.forString(source)));
+        ProgramTree program = timings.time("Parser", () -> new Parser(tokenSource).parseProgram());
+        new SemanticAnalysis(program, timings).analyze();
+        new SemanticOptimization(program, timings).optimize();
+        List<IrGraph> graphs = program.topLevelTrees().stream()
+            .map(function -> timings.time("SsaTranslation",
+                () -> new SsaTranslation(function, new LocalValueNumbering()).translate()))
+            .toList();
+        String assemblyCode = new CodeGenerator().generateCode(graphs, timings);
+
+        // The code generator does not use the graph coloring allocator yet, so it is measured on its own
+        for (IrGraph graph : graphs) {
+            NodeOrderGenerator order = new NodeOrderGenerator(graph);
+            timings.time("AasmRegisterAllocator", () -> new AasmRegisterAllocator().allocateRegisters(order));
+        }
+
+        Path binary = Files.createTempFile("scaling", "");
+        try {
+            timings.time("BuiltinCompiler", () -> new BuiltinCompiler().compileTo(assemblyCode, binary));
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+        return timings.totals();
+    }
+
+    private static void print(Dimension dimension, List<Step> steps) {
+        if (steps.isEmpty()) {
+            return;
+        }
+        Set<String> phases = new LinkedHashSet<>();
+        steps.forEach(step -> phases.addAll(step.phases().keySet()));
+        Map<String, String> growth = new LinkedHashMap<>();
+        if (steps.size() > 1) {
+            Step previous = steps.get(steps.size() - 2);
+            Step last = steps.getLast();
+            for (String phase : phases) {
+                Timings.Total before = previous.phases().get(phase);
+                Timings.Total after = last.phases().get(phase);
+                if (before != null && after != null && before.nanos() > 0) {
+                    double exponent = Math.log((double) after.nanos() / before.nanos())
+                        / Math.log((double) last.size() / previous.size());
+                    growth.put(phase, "%.2f".formatted(exponent));
+                }
+            }
+        }
+
+        StringBuilder builder = new StringBuilder();
+        builder.append("%n%s (ms / MiB allocated)%n".formatted(dimension));
+        builder.append("  %-36s".formatted("phase"));
+        steps.forEach(step -> builder.append("%18d".formatted(step.size())));
+        builder.append("%8s%n".formatted("growth"));
+        for (String phase : phases) {
+            builder.append("  %-36s".formatted(phase));
+            for (Step step : steps) {
+                Timings.Total total = step.phases().get(phase);
+                builder.append(total == null
+                    ? "%18s".formatted("-")
+                    : "%10.1f %7.1f".formatted(total.nanos() / 1e6, total.allocatedBytes() / (1024.0 * 1024)));
+            }
+            builder.append("%8s%n".formatted(growth.getOrDefault(phase, "")));
+        }
+        System.out.print(builder);
+    }
+}
@@ -0,0 +1,79 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.Timings;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.optimizer.SemanticOptimization;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Semantic analysis and the AST optimizations.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class SemanticBenchmark {
+    private static final Timings TIMINGS = Timings.of("benchmark");
+
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    private String source;
+    private ProgramTree program;
+
+    @Setup
+    public void parse() {
+        this.source = ProgramGenerator.forSize(this.size);
+        this.program = SemanticBenchmark.parse(this.source);
+    }
+
+    /// The optimizations modify the AST, so every invocation needs a fresh one.
+    @State(Scope.Thread)
+    public static class Program {
+        ProgramTree program;
+
+        @Setup(Level.Invocation)
+        public void analyze(SemanticBenchmark benchmark) {
+            this.program = SemanticBenchmark.parse(benchmark.source);
+            new SemanticAnalysis(this.program, TIMINGS).analyze();
+        }
+    }
+
+    static ProgramTree parse(String source) {
+        return new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+    }
+
+    @Benchmark
+    public ProgramTree analyze() {
+        new SemanticAnalysis(this.program, TIMINGS).analyze();
+        return this.program;
+    }
+
+    @Benchmark
+    public ProgramTree analyzeSeparately() {
+        new SemanticAnalysis(this.program, TIMINGS).analyzeSeparately();
+        return this.program;
+    }
+
+    @Benchmark
+    public ProgramTree optimize(Program program) {
+        new SemanticOptimization(program.program, TIMINGS).optimize();
+        return program.program;
+    }
+}
@@ -0,0 +1,85 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.Compilation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/// Measures how much the ahead-of-time cache of `train.sh` speeds up single-shot compilations.
+///
+/// Every program is compiled by separate launches of the installed compiler,
+/// alternating between runs with the cache and runs with `AOT_CACHE=off`,
+/// and the median wall times of both are compared.
+/// The compilation cache is disabled, as a cache hit would skip the compilation.
+///
+/// Usage: `StartupBenchmark <launcher> <program>...`
+public final class StartupBenchmark {
+    private static final int RUNS = 10;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark <launcher> <program>...");
+            System.exit(Compilation.INVALID_ARGUMENTS);
+        }
+        Path launcher = Path.of(args[0]);
+        Path lib = launcher.toAbsolutePath().getParent().resolveSibling("lib");
+        if (Files.notExists(lib.resolve("compiler.aot")) && Files.notExists(lib.resolve("compiler.jsa"))) {
+            System.err.println("No ahead-of-time cache in " + lib + ", run train.sh first");
+            System.exit(Compilation.FAILURE);
+        }
+
+        Path output = Files.createTempFile("startup", "");
+        try {
+            System.out.printf("%-24s %12s %12s %9s%n", "program", "cold ms", "cached ms", "speedup");
+            for (int i = 1; i < args.length; i++) {
+                Path program = Path.of(args[i]);
+                // the first launches warm up the page cache
+                launch(launcher, program, output, false);
+                launch(launcher, program, output, true);
+                long[] cold = new long[RUNS];
+                long[] cached = new long[RUNS];
+                for (int run = 0; run < RUNS; run++) {
+                    cold[run] = launch(launcher, program, output, false);
+                    cached[run] = launch(launcher, program, output, true);
+                }
+                long coldMedian = median(cold);
+                long cachedMedian = median(cached);
+                System.out.printf("%-24s %12.1f %12.1f %8.2fx%n", program.getFileName(),
+                    coldMedian / 1e6, cachedMedian / 1e6, (double) coldMedian / cachedMedian);
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    /// {@return the wall time of compiling the program in a new JVM}
+    private static long launch(Path launcher, Path program, Path output, boolean cache)
+        throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(launcher.toString(), program.toString(), output.toString())
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD);
+        Map<String, String> environment = builder.environment();
+        environment.remove("COMPILER_CACHE");
+        if (!cache) {
+            environment.put("AOT_CACHE", "off");
+        }
+        long start = System.nanoTime();
+        int exitCode = builder.start().waitFor();
+        long wall = System.nanoTime() - start;
+        if (exitCode != Compilation.SUCCESS) {
+            throw new IOException("Compiling " + program + " failed with exit code " + exitCode);
+        }
+        return wall;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
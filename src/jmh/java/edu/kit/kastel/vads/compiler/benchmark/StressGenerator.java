@@ -0,0 +1,105 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+/// Generates valid programs that are large in exactly one dimension.
+///
+/// Unlike [ProgramGenerator], which mixes all kinds of statements,
+/// every [Dimension] grows one property of the program linearly with the size,
+/// so compile-time cliffs can be attributed to that property.
+public final class StressGenerator {
+    public enum Dimension {
+        /// `size` local variables, all live until the end of the function.
+        LOCALS,
+        /// `size` alternately nested `if` and `while` statements.
+        NESTING,
+        /// A single condition consisting of `size` comparisons joined by `&&` and `||`.
+        CONDITIONS,
+        /// A single condition consisting of `size` comparisons all joined by `&&`,
+        /// followed by reads of a variable and of the side effects that have to look through all its blocks.
+        AND_CHAIN,
+        /// `size` assignments in a single basic block over a handful of variables.
+        STRAIGHT_LINE,
+    }
+
+    private final StringBuilder builder = new StringBuilder();
+
+    private StressGenerator() {
+    }
+
+    public static String generate(Dimension dimension, int size) {
+        StressGenerator generator = new StressGenerator();
+        generator.builder.append("int main() {\n");
+        switch (dimension) {
+            case LOCALS -> generator.locals(size);
+            case NESTING -> generator.nesting(size);
+            case CONDITIONS -> generator.conditions(size);
+            case AND_CHAIN -> generator.andChain(size);
+            case STRAIGHT_LINE -> generator.straightLine(size);
+        }
+        generator.builder.append("}\n");
+        return generator.builder.toString();
+    }
+
+    private void locals(int size) {
+        this.builder.append("  int v0 = 1;\n");
+        for (int i = 1; i < size; i++) {
+            this.builder.append("  int v%d = v%d * 3 + %d;\n".formatted(i, i - 1, i));
+        }
+        this.builder.append("  int sum = 0;\n");
+        for (int i = 0; i < size; i++) {
+            this.builder.append("  sum ^= v%d;\n".formatted(i));
+        }
+        this.builder.append("  return sum % 256;\n");
+    }
+
+    private void nesting(int size) {
+        this.builder.append("  int x = 7;\n");
+        for (int i = 0; i < size; i += 2) {
+            this.builder.append("  int w%d = 0;\n".formatted(i));
+        }
+        for (int i = 0; i < size; i++) {
+            if (i % 2 == 0) {
+                this.builder.append("while (w%d < 2) { w%d += 1; x = x * 3 + %d;\n".formatted(i, i, i));
+            } else {
+                this.builder.append("if (x > %d) { x -= %d;\n".formatted(i, i));
+            }
+        }
+        this.builder.append("x += 1;\n");
+        this.builder.append("}\n".repeat(size));
+        this.builder.append("  return x % 256;\n");
+    }
+
+    private void conditions(int size) {
+        this.builder.append("  int x = 5;\n  int y = 9;\n  if (");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                this.builder.append(i % 3 == 0 ? "\n    || " : " && ");
+            }
+            this.builder.append(i % 2 == 0 ? "x < %d".formatted(i) : "y != %d".formatted(i));
+        }
+        this.builder.append(") {\n    return 1;\n  }\n  return 0;\n");
+    }
+
+    private void andChain(int size) {
+        this.builder.append("  int x = 5;\n  int z = 9;\n  if (");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                this.builder.append(i % 8 == 0 ? "\n    && " : " && ");
+            }
+            this.builder.append("x != %d".formatted(i + 6));
+        }
+        this.builder.append(") {\n    return z / 3;\n  }\n  return 0;\n");
+    }
+
+    private void straightLine(int size) {
+        this.builder.append("  int x = 1;\n  int y = 2;\n  int z = 3;\n");
+        for (int i = 0; i < size; i++) {
+            String statement = switch (i % 3) {
+                case 0 -> "  x = (x * 31 + %d) ^ y;\n";
+                case 1 -> "  y = y + x %% 7 - %d;\n";
+                default -> "  z = (z << 1) | (x & %d);\n";
+            };
+            this.builder.append(statement.formatted(i));
+        }
+        this.builder.append("  return (x + y + z) % 256;\n");
+    }
+}
@@ -0,0 +1,13 @@
+
+# Use the ahead-of-time cache created by train.sh, unless disabled with AOT_CACHE=off
+if [ "${AOT_CACHE:-}" != off ]; then
+    if [ -f "$APP_HOME/lib/compiler.aot" ]; then
+        DEFAULT_JVM_OPTS="$DEFAULT_JVM_OPTS \"-XX:AOTCache=$APP_HOME/lib/compiler.aot\""
+    elif [ -f "$APP_HOME/lib/compiler.jsa" ]; then
+        DEFAULT_JVM_OPTS="$DEFAULT_JVM_OPTS \"-XX:SharedArchiveFile=$APP_HOME/lib/compiler.jsa\""
+    fi
+fi
+# Let the lexer use the incubating Vector API if enabled with VECTOR_API=on, the JVM then warns about it on stderr
+if [ "${VECTOR_API:-}" = on ]; then
+    DEFAULT_JVM_OPTS="$DEFAULT_JVM_OPTS \"--add-modules=jdk.incubator.vector\""
+fi
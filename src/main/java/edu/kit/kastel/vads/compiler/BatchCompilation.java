@@ -0,0 +1,102 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/// Compiles many programs in one JVM, using a bounded pool of worker threads.
+///
+/// The jobs are either read from a manifest containing one `<input> <output>` job per line,
+/// or taken from a directory, where each `*.l<n>` source is compiled to a binary next to it
+/// with the extension stripped.
+/// Once all jobs are done, one line `<exit code>\t<input>` per job is printed in job order.
+public final class BatchCompilation {
+    private static final Logger LOGGER = Logger.getLogger(BatchCompilation.class.getName());
+    private static final Pattern SOURCE_FILE = Pattern.compile("(.+)\\.l\\d+");
+
+    private final List<Compilation> compilations;
+    private final int workers;
+
+    private BatchCompilation(List<Compilation> compilations, int workers) {
+        this.compilations = compilations;
+        this.workers = workers;
+    }
+
+    /// {@return a batch for the given manifest file or source directory}
+    public static BatchCompilation of(Path jobs, int workers) throws IOException {
+        if (Files.isDirectory(jobs)) {
+            return new BatchCompilation(fromDirectory(jobs), workers);
+        }
+        return new BatchCompilation(fromManifest(jobs), workers);
+    }
+
+    private static List<Compilation> fromDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Compilation> compilations = new ArrayList<>();
+            for (Path file : files.sorted().toList()) {
+                var matcher = SOURCE_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && Files.isRegularFile(file)) {
+                    compilations.add(new Compilation(file, file.resolveSibling(matcher.group(1))));
+                }
+            }
+            return compilations;
+        }
+    }
+
+    private static List<Compilation> fromManifest(Path manifest) throws IOException {
+        List<Compilation> compilations = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Optional<Compilation> compilation = Compilation.parseJob(line);
+            if (compilation.isEmpty()) {
+                throw new IOException("Invalid manifest line: \"" + line + "\"");
+            }
+            compilations.add(compilation.get());
+        }
+        return compilations;
+    }
+
+    /// {@return [Compilation#SUCCESS] if every job succeeded, [Compilation#FAILURE] otherwise}
+    public int run() {
+        List<Future<Integer>> results = new ArrayList<>(this.compilations.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(this.workers)) {
+            for (Compilation compilation : this.compilations) {
+                results.add(executor.submit(compilation::run));
+            }
+        }
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            int exitCode = exitCode(results.get(i));
+            if (exitCode != Compilation.SUCCESS) {
+                failed++;
+            }
+            System.out.println(exitCode + "\t" + this.compilations.get(i).input());
+        }
+        LOGGER.log(Level.INFO, "Compiled {0} programs, {1} failed", new Object[] {results.size(), failed});
+        return failed == 0 ? Compilation.SUCCESS : Compilation.FAILURE;
+    }
+
+    private static int exitCode(Future<Integer> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Compilation.FAILURE;
+        } catch (ExecutionException e) {
+            return Compilation.FAILURE;
+        }
+    }
+}
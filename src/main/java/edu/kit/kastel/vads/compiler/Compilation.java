@@ -0,0 +1,240 @@
+package edu.kit.kastel.vads.compiler;
+
+import edu.kit.kastel.vads.compiler.backend.aasm.CodeGenerator;
+import edu.kit.kastel.vads.compiler.backend.compiler.BuiltinCompiler;
+import edu.kit.kastel.vads.compiler.backend.compiler.Compiler;
+import edu.kit.kastel.vads.compiler.backend.compiler.BinutilsCompiler;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
+import edu.kit.kastel.vads.compiler.ir.util.GraphVizPrinter;
+import edu.kit.kastel.vads.compiler.ir.util.YCompPrinter;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.ParseException;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.Printer;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.optimizer.SemanticOptimization;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/// A single compilation of one input file to one output binary.
+/// Instead of terminating the JVM, every outcome is reported as an exit code,
+/// so many compilations can run in the same process.
+public final class Compilation {
+    public static final int SUCCESS = 0;
+    /// Same as the JVM reports for an uncaught exception.
+    public static final int FAILURE = 1;
+    public static final int INVALID_ARGUMENTS = 3;
+    public static final int SEMANTIC_ERROR = 7;
+    public static final int PARSE_ERROR = 42;
+
+    private static final Logger LOGGER = Logger.getLogger(Compilation.class.getName());
+
+    private final Path input;
+    private final Path output;
+
+    public Compilation(Path input, Path output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /// Parses a job description of the form `<input> <output>`, separated by a tab or whitespace.
+    public static Optional<Compilation> parseJob(String job) {
+        String[] paths = job.strip().split(job.indexOf('\t') >= 0 ? "\t" : "\\s+");
+        if (paths.length != 2) {
+            return Optional.empty();
+        }
+        return Optional.of(new Compilation(Path.of(paths[0].strip()), Path.of(paths[1].strip())));
+    }
+
+    public Path input() {
+        return this.input;
+    }
+
+    /// {@return the exit code of the compilation, [#SUCCESS] if a binary was produced}
+    public int run() {
+        try {
+            return compile();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "I/O error while compiling " + this.input, e);
+            return FAILURE;
+        } catch (RuntimeException e) {
+            // a crashing job must not take down other compilations in the same process
+            LOGGER.log(Level.SEVERE, "Compilation of " + this.input + " crashed", e);
+            return FAILURE;
+        } catch (StackOverflowError _) {
+            // statements are still parsed, analyzed and translated recursively,
+            // deeply nested ones must only fail their own job in the server, batch and watch modes
+            LOGGER.log(Level.SEVERE, "Compilation of " + this.input + " ran out of stack, its statements nest too deeply");
+            return FAILURE;
+        }
+    }
+
+    private int compile() throws IOException {
+        Timings timings = Timings.of(this.input.toString());
+        try {
+            return compile(timings);
+        } finally {
+            timings.report();
+        }
+    }
+
+    private int compile(Timings timings) throws IOException {
+        // Dumps are a side effect of compiling, so they bypass the cache
+        Optional<CompilationCache> cache = shouldDumpGraphs() || shouldDumpAssembly()
+            ? Optional.empty()
+            : CompilationCache.get();
+        Optional<String> cacheKey = Optional.empty();
+        Lexer lexer;
+        if (cache.isPresent()) {
+            // the key needs all bytes anyway, so lex them instead of mapping the file
+            byte[] source = Files.readAllBytes(this.input);
+            cacheKey = Optional.of(cache.get().key(source, assembler()));
+            if (cache.get().restore(cacheKey.get(), this.output)) {
+                return SUCCESS;
+            }
+            lexer = Lexer.forBytes(source);
+        } else {
+            lexer = Lexer.forFile(this.input);
+        }
+
+        ProgramTree program;
+        try {
+            program = lexAndParse(lexer, timings);
+        } catch (ParseException e) {
+            e.printStackTrace();
+            return PARSE_ERROR;
+        }
+        try {
+            new SemanticAnalysis(program, timings).analyze();
+        } catch (SemanticException e) {
+            e.locate(lexer.lines()).printStackTrace();
+            return SEMANTIC_ERROR;
+        }
+
+        // Print before optimizations
+        if (shouldPrintProgram()) {
+            LOGGER.log(Level.INFO, "Program before optimizations:");
+            String programCode = Printer.print(program);
+            LOGGER.log(Level.INFO, programCode);
+        }
+
+        // Apply semantic optimizations
+        new SemanticOptimization(program, timings).optimize();
+
+        // Print after optimizations
+        if (shouldPrintProgram()) {
+            LOGGER.log(Level.INFO, "Program after optimizations:");
+            String programCode = Printer.print(program);
+            LOGGER.log(Level.INFO, programCode);
+        }
+
+        // SSA translation, each function independently
+        List<IrGraph> graphs = program.topLevelTrees().parallelStream()
+                .map(f -> translate(f, timings))
+                .toList();
+        dumpIrGraph(graphs, lexer.lines(), this.output);
+
+        // Generate code
+        String assemblyCode = new CodeGenerator().generateCode(graphs, timings);
+        dumpAssembly(assemblyCode, this.output);
+
+        // Compile to binary
+        Compiler compiler = compiler();
+        int exitCode = timings.time(compiler.getClass().getSimpleName(),
+            () -> compiler.compileTo(assemblyCode, this.output));
+
+        if (exitCode != 0) {
+            LOGGER.log(Level.SEVERE, "Compilation failed with exit code: {0}", exitCode);
+        } else if (cacheKey.isPresent()) {
+            cache.get().store(cacheKey.get(), this.output);
+        }
+        return exitCode;
+    }
+
+    /// Lexes while parsing, unless `BUFFER_TOKENS` requests lexing all tokens first, e.g. to time both separately.
+    static ProgramTree lexAndParse(Lexer lexer, Timings timings) {
+        if (shouldBufferTokens()) {
+            TokenSource tokenSource = timings.time("Lexer", () -> new TokenSource(lexer));
+            Parser parser = new Parser(tokenSource);
+            return timings.time("Parser", parser::parseProgram);
+        }
+        Parser parser = new Parser(TokenSource.streaming(lexer));
+        return timings.time("Lexer+Parser", parser::parseProgram);
+    }
+
+    private static boolean shouldBufferTokens() {
+        return System.getenv("BUFFER_TOKENS") != null || System.getProperty("bufferTokens") != null;
+    }
+
+    static IrGraph translate(FunctionTree function, Timings timings) {
+        return timings.time("SsaTranslation", function.name().name().asString(),
+            () -> new SsaTranslation(function, new LocalValueNumbering()).translate());
+    }
+
+    /// {@return the compiler producing the binary, binutils if requested by `ASSEMBLER=binutils`}
+    static Compiler compiler() {
+        return assembler().equals("binutils") ? new BinutilsCompiler() : new BuiltinCompiler();
+    }
+
+    private static String assembler() {
+        String assembler = System.getenv("ASSEMBLER");
+        if (assembler == null) {
+            assembler = System.getProperty("assembler", "builtin");
+        }
+        return assembler;
+    }
+
+    static boolean shouldPrintProgram() {
+        return System.getenv("PRINT_PROGRAM") != null || System.getProperty("printProgram") != null;
+    }
+
+    private static boolean shouldDumpAssembly() {
+        return System.getenv("DUMP_ASSEMBLY") != null || System.getProperty("dumpAssembly") != null;
+    }
+
+    /// Writes the assembly next to the output, if requested.
+    static void dumpAssembly(String assemblyCode, Path output) throws IOException {
+        if (shouldDumpAssembly()) {
+            Files.writeString(output.resolveSibling(output.getFileName() + ".s"), assemblyCode);
+        }
+    }
+
+    private static boolean shouldDumpGraphs() {
+        return System.getenv("DUMP_GRAPHS") != null || System.getProperty("dumpGraphs") != null;
+    }
+
+    static void dumpIrGraph(List<IrGraph> graphs, LineTable lines, Path output) throws IOException {
+        if ("vcg".equals(System.getenv("DUMP_GRAPHS")) || "vcg".equals(System.getProperty("dumpGraphs"))) {
+            for (IrGraph graph : graphs) {
+                dump("vcg", output, YCompPrinter.print(graph));
+            }
+        }
+        if ("dot".equals(System.getenv("DUMP_GRAPHS")) || "dot".equals(System.getProperty("dumpGraphs"))) {
+            for (IrGraph graph : graphs) {
+                dump("dot", output, GraphVizPrinter.print(graph, lines));
+            }
+        }
+    }
+
+    private static void dump(String name, Path path, String body) throws IOException {
+        Path tmp = path.toAbsolutePath().resolveSibling("graphs");
+        if (!Files.exists(tmp)) {
+            Files.createDirectory(tmp);
+        }
+        Files.writeString(
+            tmp.resolve(name + "-before-codegen." + name),
+            body
+        );
+    }
+}
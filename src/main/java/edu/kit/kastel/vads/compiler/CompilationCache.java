@@ -0,0 +1,238 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+
+/// A content-addressed cache of compilation results on disk.
+///
+/// Entries are keyed by a hash of the source bytes, the settings and the build of the compiler itself,
+/// so a rebuilt compiler never sees results of an older one.
+/// Every entry is a directory containing the generated binary.
+/// It is assembled in a temporary directory and then renamed into place,
+/// so multiple compiler processes can share one cache directory.
+///
+/// Least recently used entries are evicted once the cache grows beyond its size limit.
+/// The modification time of an entry directory serves as its last access time.
+/// Temporary directories left behind by crashed or failed stores and evictions are removed while evicting.
+public final class CompilationCache {
+    private static final Logger LOGGER = Logger.getLogger(CompilationCache.class.getName());
+    private static final long DEFAULT_MAX_SIZE = 512L * 1024 * 1024;
+    private static final String BINARY = "program";
+    private static final String TEMPORARY_PREFIX = ".tmp-";
+    // storing or deleting an entry takes milliseconds, older temporaries were left behind by a crash
+    private static final Duration STALE_TEMPORARY_AGE = Duration.ofMinutes(10);
+
+    private static final Optional<CompilationCache> INSTANCE = fromEnvironment();
+
+    private final Path directory;
+    private final long maxSize;
+    private final byte[] buildId;
+
+    private CompilationCache(Path directory, long maxSize, byte[] buildId) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.buildId = buildId;
+    }
+
+    /// {@return the cache configured by `COMPILER_CACHE` and `COMPILER_CACHE_SIZE`, if any}
+    public static Optional<CompilationCache> get() {
+        return INSTANCE;
+    }
+
+    private static Optional<CompilationCache> fromEnvironment() {
+        String directory = setting("COMPILER_CACHE", "compilerCache");
+        if (directory == null) {
+            return Optional.empty();
+        }
+        String size = setting("COMPILER_CACHE_SIZE", "compilerCacheSize");
+        try {
+            Path path = Path.of(directory);
+            Files.createDirectories(path);
+            long maxSize = size == null ? DEFAULT_MAX_SIZE : Long.parseLong(size);
+            return Optional.of(new CompilationCache(path, maxSize, buildId()));
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Compilation cache disabled", e);
+            return Optional.empty();
+        }
+    }
+
+    private static @Nullable String setting(String environmentVariable, String property) {
+        String value = System.getenv(environmentVariable);
+        return value != null ? value : System.getProperty(property);
+    }
+
+    /// {@return the cache key for the given source, compiled with the given settings}
+    public String key(byte[] source, String settings) {
+        MessageDigest digest = sha256();
+        digest.update(this.buildId);
+        digest.update(settings.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(source);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /// Copies the cached binary for the given key to its destination.
+    /// {@return whether the key was cached}
+    public boolean restore(String key, Path binary) {
+        Path entry = this.directory.resolve(key);
+        if (!Files.isDirectory(entry)) {
+            return false;
+        }
+        try {
+            Files.copy(entry.resolve(BINARY), binary,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (IOException e) {
+            // the entry was evicted concurrently, just compile again
+            LOGGER.log(Level.FINE, "Could not restore cache entry " + key, e);
+            return false;
+        }
+    }
+
+    /// Stores the binary under the given key and evicts old entries if necessary.
+    public void store(String key, Path binary) {
+        Path temporary = this.directory.resolve(TEMPORARY_PREFIX + UUID.randomUUID());
+        try {
+            Files.createDirectory(temporary);
+            Files.copy(binary, temporary.resolve(BINARY), StandardCopyOption.COPY_ATTRIBUTES);
+            Files.move(temporary, this.directory.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException _) {
+            // another process stored the same entry in the meantime
+        } catch (AtomicMoveNotSupportedException e) {
+            LOGGER.log(Level.WARNING, "Cache directory does not support atomic moves", e);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not store cache entry " + key, e);
+        } finally {
+            deleteQuietly(temporary);
+        }
+        evict();
+    }
+
+    private void evict() {
+        record Entry(Path path, long size, FileTime lastAccess) {
+        }
+        List<Entry> entries = new ArrayList<>();
+        long totalSize = 0;
+        FileTime staleBefore = FileTime.from(Instant.now().minus(STALE_TEMPORARY_AGE));
+        try (Stream<Path> paths = Files.list(this.directory)) {
+            for (Path path : paths.toList()) {
+                try {
+                    if (!path.getFileName().toString().startsWith(TEMPORARY_PREFIX)) {
+                        long size = size(path);
+                        entries.add(new Entry(path, size, Files.getLastModifiedTime(path)));
+                        totalSize += size;
+                    } else if (Files.getLastModifiedTime(path).compareTo(staleBefore) < 0) {
+                        deleteQuietly(path);
+                    }
+                } catch (NoSuchFileException _) {
+                    // evicted or stored concurrently
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not evict cache entries", e);
+            return;
+        }
+        entries.sort(Comparator.comparing(Entry::lastAccess));
+        for (Entry entry : entries) {
+            if (totalSize <= this.maxSize) {
+                break;
+            }
+            // move the entry out of the way first, so no reader ever sees a partially deleted entry
+            Path temporary = this.directory.resolve(TEMPORARY_PREFIX + UUID.randomUUID());
+            try {
+                Files.move(entry.path(), temporary, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException _) {
+                // evicted concurrently
+                continue;
+            }
+            deleteQuietly(temporary);
+            totalSize -= entry.size();
+        }
+    }
+
+    private static long size(Path entry) throws IOException {
+        try (Stream<Path> files = Files.list(entry)) {
+            long size = 0;
+            for (Path file : files.toList()) {
+                size += Files.size(file);
+            }
+            return size;
+        }
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not delete " + directory, e);
+        }
+    }
+
+    /// Hashes the jar or class directory the compiler was loaded from.
+    private static byte[] buildId() throws IOException {
+        MessageDigest digest = sha256();
+        CodeSource codeSource = CompilationCache.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            throw new IOException("Unknown compiler location");
+        }
+        Path location;
+        try {
+            location = Path.of(codeSource.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Unsupported compiler location " + codeSource.getLocation(), e);
+        }
+        try (Stream<Path> files = Files.walk(location)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = Files.newInputStream(file)) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/// A long-running compiler process that keeps the JVM warm across many compilations.
+///
+/// Jobs are sent line by line as `<input> <output>`, separated by a tab or whitespace.
+/// For each job, exactly one line containing the exit code of the compilation is replied,
+/// using the same codes the single-shot compiler terminates with.
+/// An empty line or `quit` ends the session.
+///
+/// The server either talks over stdin/stdout, or listens on a Unix domain socket
+/// and serves the connections one after another.
+public final class CompileServer {
+    private static final Logger LOGGER = Logger.getLogger(CompileServer.class.getName());
+
+    private CompileServer() {
+    }
+
+    public static void serveStdio() throws IOException {
+        var reader = new InputStreamReader(System.in, StandardCharsets.UTF_8);
+        var writer = new PrintWriter(System.out, true, StandardCharsets.UTF_8);
+        serve(reader, writer);
+    }
+
+    public static void serveSocket(Path socketPath) throws IOException {
+        Files.deleteIfExists(socketPath);
+        var address = UnixDomainSocketAddress.of(socketPath);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(address);
+            LOGGER.log(Level.INFO, "Listening on {0}", socketPath);
+            while (true) {
+                try (SocketChannel client = server.accept()) {
+                    serve(
+                        Channels.newReader(client, StandardCharsets.UTF_8),
+                        Channels.newWriter(client, StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Connection failed", e);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private static void serve(Reader in, Writer out) throws IOException {
+        var reader = new BufferedReader(in);
+        var writer = out instanceof PrintWriter printWriter ? printWriter : new PrintWriter(out, true);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.equals("quit")) {
+                break;
+            }
+            writer.println(handle(line));
+            writer.flush();
+        }
+    }
+
+    private static int handle(String request) {
+        Optional<Compilation> compilation = Compilation.parseJob(request);
+        if (compilation.isEmpty()) {
+            LOGGER.log(Level.SEVERE, "Invalid request: Expected one input file and one output file, got \"{0}\"", request);
+            return Compilation.INVALID_ARGUMENTS;
+        }
+        return compilation.get().run();
+    }
+}
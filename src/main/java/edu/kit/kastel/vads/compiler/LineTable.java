@@ -0,0 +1,43 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.util.Arrays;
+
+/// The offsets at which the lines of a source start, to turn byte offsets into lines and columns.
+/// Both `\n` and `\r` end a line.
+public final class LineTable {
+    private int[] starts = new int[64];
+    private int size = 1;
+    // the line of the last lookup, as positions are mostly requested in source order
+    private int last;
+
+    public void add(int start) {
+        if (this.size == this.starts.length) {
+            this.starts = Arrays.copyOf(this.starts, this.size * 2);
+        }
+        this.starts[this.size++] = start;
+    }
+
+    public Position position(int offset) {
+        int line = line(offset);
+        return new Position.SimplePosition(line, offset - this.starts[line]);
+    }
+
+    /// {@return the span with resolved lines and columns}
+    public String format(long span) {
+        return "[" + position(Span.start(span)) + "|" + position(Span.end(span)) + "]";
+    }
+
+    private int line(int offset) {
+        int line = this.last;
+        if (offset < this.starts[line]) {
+            line = Arrays.binarySearch(this.starts, 0, line, offset);
+            line = line >= 0 ? line : -line - 2;
+        } else {
+            while (line + 1 < this.size && this.starts[line + 1] <= offset) {
+                line++;
+            }
+        }
+        this.last = line;
+        return line;
+    }
+}
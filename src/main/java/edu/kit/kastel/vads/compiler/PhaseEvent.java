@@ -0,0 +1,30 @@
+package edu.kit.kastel.vads.compiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jspecify.annotations.Nullable;
+
+/// A flight recorder event covering one phase of a compilation.
+@Name("edu.kit.kastel.vads.compiler.Phase")
+@Label("Compiler Phase")
+@Category("Compiler")
+@Description("A phase of a compilation, optionally limited to a single function")
+@StackTrace(false)
+final class PhaseEvent extends jdk.jfr.Event {
+    @Label("Input")
+    String input;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Function")
+    @Nullable String function;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+}
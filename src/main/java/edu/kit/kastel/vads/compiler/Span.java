@@ -1,20 +1,34 @@
 package edu.kit.kastel.vads.compiler;
 
-public sealed interface Span {
-    Position start();
-    Position end();
+/// Spans are the start and end byte offsets in a source, packed into a single `long`,
+/// so that tokens and trees can carry them without allocating.
+/// Lines and columns are only resolved through the [LineTable] of the source when reported.
+public final class Span {
+    /// The span of nodes that do not originate from the source.
+    public static final long NONE = -1;
 
-    Span merge(Span later);
+    private Span() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static long of(int start, int end) {
+        return (long) start << 32 | end & 0xFFFFFFFFL;
+    }
+
+    public static int start(long span) {
+        return (int) (span >>> 32);
+    }
+
+    public static int end(long span) {
+        return (int) span;
+    }
 
-    record SimpleSpan(Position start, Position end) implements Span {
-        @Override
-        public Span merge(Span later) {
-            return new SimpleSpan(start(), later.end());
-        }
+    public static long merge(long span, long later) {
+        return of(start(span), end(later));
+    }
 
-        @Override
-        public String toString() {
-            return "[" + start() + "|" + end() + "]";
-        }
+    /// {@return the offsets of the span, for when no line table is at hand}
+    public static String toString(long span) {
+        return "[" + start(span) + ".." + end(span) + "]";
     }
 }
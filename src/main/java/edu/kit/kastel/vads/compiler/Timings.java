@@ -0,0 +1,128 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/// Measures the wall time and allocated bytes of the phases of one compilation.
+///
+/// Measurements are only kept and reported if the `compiler.timings` property is set.
+/// Independently of that, every phase is emitted as a [PhaseEvent] to the flight recorder.
+/// Phases may run concurrently, but each single phase must run on one thread,
+/// as allocations are counted for the current thread only.
+public final class Timings {
+    private static final Logger LOGGER = Logger.getLogger(Timings.class.getName());
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private record Measurement(String phase, @Nullable String function, long nanos, long allocatedBytes) {
+    }
+
+    /// The summed up measurements of all runs of one phase.
+    public record Total(long nanos, long allocatedBytes) {
+        Total plus(Total other) {
+            return new Total(this.nanos + other.nanos, this.allocatedBytes + other.allocatedBytes);
+        }
+    }
+
+    private final String input;
+    private final boolean enabled;
+    private final Queue<Measurement> measurements = new ConcurrentLinkedQueue<>();
+
+    private Timings(String input, boolean enabled) {
+        this.input = input;
+        this.enabled = enabled;
+    }
+
+    /// {@return timings for the compilation of the given input}
+    public static Timings of(String input) {
+        return new Timings(input, System.getProperty("compiler.timings") != null);
+    }
+
+    /// {@return timings for the given input that are kept regardless of the `compiler.timings` property}
+    public static Timings recording(String input) {
+        return new Timings(input, true);
+    }
+
+    public void time(String phase, Runnable action) {
+        time(phase, null, action);
+    }
+
+    public void time(String phase, @Nullable String function, Runnable action) {
+        time(phase, function, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T extends @Nullable Object> T time(String phase, Supplier<T> action) {
+        return time(phase, null, action);
+    }
+
+    public <T extends @Nullable Object> T time(String phase, @Nullable String function, Supplier<T> action) {
+        PhaseEvent event = new PhaseEvent();
+        if (!this.enabled && !event.isEnabled()) {
+            return action.get();
+        }
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        event.begin();
+        try {
+            return action.get();
+        } finally {
+            event.end();
+            long nanos = System.nanoTime() - start;
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            if (event.shouldCommit()) {
+                event.input = this.input;
+                event.phase = phase;
+                event.function = function;
+                event.allocated = allocated;
+                event.commit();
+            }
+            if (this.enabled) {
+                this.measurements.add(new Measurement(phase, function, nanos, allocated));
+            }
+        }
+    }
+
+    /// {@return the totals per phase, in the order the phases were first finished}
+    public Map<String, Total> totals() {
+        Map<String, Total> totals = new LinkedHashMap<>();
+        for (Measurement measurement : this.measurements) {
+            totals.merge(measurement.phase(), new Total(measurement.nanos(), measurement.allocatedBytes()),
+                Total::plus);
+        }
+        return totals;
+    }
+
+    /// Logs all measurements, followed by the totals per phase.
+    public void report() {
+        if (!this.enabled) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("Timings for " + this.input + ":");
+        for (Measurement measurement : this.measurements) {
+            String name = measurement.function() == null
+                ? measurement.phase()
+                : measurement.phase() + " [" + measurement.function() + "]";
+            lines.add(format(name, measurement.nanos(), measurement.allocatedBytes()));
+        }
+        lines.add("Totals per phase:");
+        totals().forEach((phase, total) -> lines.add(format(phase, total.nanos(), total.allocatedBytes())));
+        LOGGER.log(Level.INFO, String.join("\n", lines));
+    }
+
+    private static String format(String name, long nanos, long allocatedBytes) {
+        return "  %-48s %10.3f ms %12d KiB".formatted(name, nanos / 1e6, allocatedBytes / 1024);
+    }
+}
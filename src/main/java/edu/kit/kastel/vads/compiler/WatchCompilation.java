@@ -0,0 +1,157 @@
+package edu.kit.kastel.vads.compiler;
+
+import edu.kit.kastel.vads.compiler.backend.aasm.CodeGenerator;
+import edu.kit.kastel.vads.compiler.backend.compiler.Compiler;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.ParseException;
+import edu.kit.kastel.vads.compiler.parser.Printer;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.optimizer.SemanticOptimization;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/// Recompiles a file whenever it changes, reusing the results of unchanged functions.
+///
+/// Functions are identified by their structure, i.e. their printed AST before optimizations.
+/// As it contains neither positions nor comments, moving a function or editing another one
+/// does not change it, and its IR graph and assembly are taken from the previous compilation.
+/// Only the functions whose structure changed are translated and generated again.
+public final class WatchCompilation {
+    private static final Logger LOGGER = Logger.getLogger(WatchCompilation.class.getName());
+
+    private record CompiledFunction(IrGraph graph, CodeGenerator.FunctionCode code) {
+    }
+
+    private final Path input;
+    private final Path output;
+    private Map<String, CompiledFunction> functions = Map.of();
+    private byte[] lastSource = new byte[0];
+
+    public WatchCompilation(Path input, Path output) {
+        this.input = input.toAbsolutePath();
+        this.output = output;
+    }
+
+    /// Compiles the input once and then again after every change, until interrupted.
+    public void watch() throws IOException, InterruptedException {
+        recompile();
+        try (WatchService watchService = this.input.getFileSystem().newWatchService()) {
+            this.input.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= this.input.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    recompile();
+                }
+            }
+        }
+    }
+
+    private void recompile() {
+        try {
+            byte[] source = Files.readAllBytes(this.input);
+            // editors usually trigger multiple events per save
+            if (Arrays.equals(source, this.lastSource)) {
+                return;
+            }
+            this.lastSource = source;
+            int exitCode = compile(source);
+            LOGGER.log(Level.INFO, "Compiled {0} with exit code {1}", new Object[] {this.input, exitCode});
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "I/O error while compiling " + this.input, e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Compilation of " + this.input + " crashed", e);
+        }
+    }
+
+    private int compile(byte[] source) throws IOException {
+        Timings timings = Timings.of(this.input.toString());
+        try {
+            return compile(source, timings);
+        } finally {
+            timings.report();
+        }
+    }
+
+    private int compile(byte[] source, Timings timings) throws IOException {
+        Lexer lexer = Lexer.forBytes(source);
+        ProgramTree program;
+        try {
+            program = Compilation.lexAndParse(lexer, timings);
+        } catch (ParseException e) {
+            e.printStackTrace();
+            return Compilation.PARSE_ERROR;
+        }
+        try {
+            new SemanticAnalysis(program, timings).analyze();
+        } catch (SemanticException e) {
+            e.locate(lexer.lines()).printStackTrace();
+            return Compilation.SEMANTIC_ERROR;
+        }
+
+        // The structure must be taken before the optimizations modify the AST
+        List<String> structures = program.topLevelTrees().stream()
+            .map(Printer::print)
+            .toList();
+
+        new SemanticOptimization(program, timings).optimize();
+
+        if (Compilation.shouldPrintProgram()) {
+            LOGGER.log(Level.INFO, "Program after optimizations:");
+            LOGGER.log(Level.INFO, Printer.print(program));
+        }
+
+        List<FunctionTree> trees = program.topLevelTrees();
+        Map<String, CompiledFunction> compiled = new HashMap<>();
+        List<CompiledFunction> ordered = IntStream.range(0, trees.size())
+            .parallel()
+            .mapToObj(i -> {
+                CompiledFunction previous = this.functions.get(structures.get(i));
+                return previous != null ? previous : compileFunction(trees.get(i), timings);
+            })
+            .toList();
+        int changed = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            if (!this.functions.containsKey(structures.get(i))) {
+                changed++;
+            }
+            compiled.put(structures.get(i), ordered.get(i));
+        }
+        this.functions = compiled;
+        LOGGER.log(Level.INFO, "Recompiled {0} of {1} functions", new Object[] {changed, ordered.size()});
+
+        Compilation.dumpIrGraph(ordered.stream().map(CompiledFunction::graph).toList(), lexer.lines(), this.output);
+
+        String assemblyCode = CodeGenerator.assemble(ordered.stream().map(CompiledFunction::code).toList());
+        Compilation.dumpAssembly(assemblyCode, this.output);
+
+        Compiler compiler = Compilation.compiler();
+        return timings.time(compiler.getClass().getSimpleName(), () -> compiler.compileTo(assemblyCode, this.output));
+    }
+
+    private static CompiledFunction compileFunction(FunctionTree function, Timings timings) {
+        IrGraph graph = Compilation.translate(function, timings);
+        return new CompiledFunction(graph, CodeGenerator.generateFunction(graph, timings));
+    }
+}
@@ -2,6 +2,7 @@ package edu.kit.kastel.vads.compiler.backend.aasm;
 
 import static edu.kit.kastel.vads.compiler.ir.util.NodeSupport.predecessorSkipProj;
 
+import edu.kit.kastel.vads.compiler.Timings;
 import edu.kit.kastel.vads.compiler.backend.regalloc.AasmRegisterAllocator;
 import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
 import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
@@ -33,56 +34,79 @@ public class CodeGenerator {
     private record StringBuilderWithBlockName(String blockName, StringBuilder builder) {
     }
 
+    /// The assembly of a single function, along with the number of stack slots it needs.
+    public record FunctionCode(String code, int stackRegisters) {
+    }
+
     private final Map<String, List<String>> extraStatementsInBlockBeforeJump = new HashMap<>();
 
-    public String generateCode(List<IrGraph> graphs) {
-        List<Map<Node, Register>> registerAllocations = new ArrayList<>();
+    /// Generates the code for all functions in parallel.
+    /// Each function is handled by its own generator, so no state is shared between them,
+    /// and the resulting fragments are emitted in the order of the given graphs.
+    public String generateCode(List<IrGraph> graphs, Timings timings) {
+        return assemble(graphs.parallelStream()
+            .map(graph -> generateFunction(graph, timings))
+            .toList());
+    }
+
+    /// {@return the code of the given function, independent of all other functions}
+    public static FunctionCode generateFunction(IrGraph graph, Timings timings) {
+        return new CodeGenerator().generate(graph, timings);
+    }
+
+    /// {@return the whole program consisting of the given functions, in that order}
+    public static String assemble(List<FunctionCode> functions) {
+        StringBuilder builder = new StringBuilder();
+
+        var maxStackRegisters = functions
+            .stream()
+            .mapToInt(FunctionCode::stackRegisters)
+            .max()
+            .orElseThrow();
+
+        addPreamble(builder, maxStackRegisters * VirtualRegister.REGISTER_BYTE_SIZE);
+
+        for (FunctionCode function : functions) {
+            builder.append(function.code());
+        }
+
+        return builder.toString();
+    }
+
+    private FunctionCode generate(IrGraph graph, Timings timings) {
         boolean dontReuseRegisters = true;
         RegisterAllocator allocator = dontReuseRegisters
             ? new SimpleAasmRegisterAllocator()
             : new AasmRegisterAllocator();
 
+        var orderGenerator = timings.time("NodeOrderGenerator", graph.name(), () -> new NodeOrderGenerator(graph));
+        var registers = timings.time("RegisterAllocation", graph.name(),
+            () -> allocator.allocateRegisters(orderGenerator));
+        return timings.time("CodeGenerator", graph.name(), () -> generateBlocks(orderGenerator, registers));
+    }
+
+    private FunctionCode generateBlocks(NodeOrderGenerator orderGenerator, Map<Node, Register> registers) {
         List<StringBuilderWithBlockName> blockBuilders = new ArrayList<>();
-        for (IrGraph graph : graphs) {
-            var orderGenerator = new NodeOrderGenerator(graph);
-
-            var registers = allocator.allocateRegisters(orderGenerator);
-            registerAllocations.add(registers);
-
-            for (NodeOrderGenerator.OrderedBlock orderedBlock : orderGenerator.getOrder()) {
-                StringBuilder blockBuilder = new StringBuilder();
-                blockBuilder
-                    // Comment ---
-                    .append("# --- ")
-                    .append(orderedBlock.blockName())
-                    .append(" ---\n")
-                    // -----------
-                    .append(orderedBlock.blockName())
-                    .append(":\n");
-
-                for (Node node : orderedBlock.nodes()) {
-                    generateForNode(node, blockBuilder, registers);
-                }
+        for (NodeOrderGenerator.OrderedBlock orderedBlock : orderGenerator.getOrder()) {
+            StringBuilder blockBuilder = new StringBuilder();
+            blockBuilder
+                // Comment ---
+                .append("# --- ")
+                .append(orderedBlock.blockName())
+                .append(" ---\n")
+                // -----------
+                .append(orderedBlock.blockName())
+                .append(":\n");
 
-                blockBuilders.add(new StringBuilderWithBlockName(orderedBlock.blockName(), blockBuilder));
+            for (Node node : orderedBlock.nodes()) {
+                generateForNode(node, blockBuilder, registers);
             }
-        }
-
-        // Write code
-        StringBuilder builder = new StringBuilder();
-
-        var maxStackRegisters = registerAllocations
-            .stream()
-            .map(allocation -> allocation.values().stream()
-                .filter(Register::isStackVariable)
-                .mapToInt(_ -> 1)
-                .sum())
-            .max(Integer::compare)
-            .orElseThrow();
 
-        addPreamble(builder, maxStackRegisters * VirtualRegister.REGISTER_BYTE_SIZE);
+            blockBuilders.add(new StringBuilderWithBlockName(orderedBlock.blockName(), blockBuilder));
+        }
 
         // Write blocks
+        StringBuilder builder = new StringBuilder();
         for (StringBuilderWithBlockName blockBuilder : blockBuilders) {
             List<String> strings = extraStatementsInBlockBeforeJump.get(blockBuilder.blockName());
             if (strings == null) {
@@ -103,17 +127,20 @@ public class CodeGenerator {
             }
         }
 
-        return builder.toString();
+        int stackRegisters = (int) registers.values().stream()
+            .filter(Register::isStackVariable)
+            .count();
+        return new FunctionCode(builder.toString(), stackRegisters);
     }
 
-    private void addPreamble(StringBuilder builder, int stackSize) {
+    private static void addPreamble(StringBuilder builder, int stackSize) {
         builder.append("""
                 .section .note.GNU-stack
-                .global main
+                .global _start
                 .global start
                 .text
 
-                main:
+                _start:
                 # Allocate %d bytes for local variables
                 sub $%d, %%rsp
 
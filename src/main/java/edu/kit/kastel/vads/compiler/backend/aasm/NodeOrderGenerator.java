@@ -1,6 +1,5 @@
 package edu.kit.kastel.vads.compiler.backend.aasm;
 
-import edu.kit.kastel.vads.compiler.Position;
 import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
@@ -11,8 +10,8 @@ import edu.kit.kastel.vads.compiler.ir.node.block.ReturnNode;
 import edu.kit.kastel.vads.compiler.ir.node.block.StartNode;
 import edu.kit.kastel.vads.compiler.ir.node.constant.ConstBoolNode;
 import edu.kit.kastel.vads.compiler.ir.node.constant.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.control.IfNode;
 import edu.kit.kastel.vads.compiler.ir.node.control.TernaryNode;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
 import java.util.*;
 
 public class NodeOrderGenerator {
@@ -39,15 +38,16 @@ public class NodeOrderGenerator {
                 .toList();
 
             List<Node> constants = new ArrayList<>();
-            List<Node> returnJumpsAndTernaries = new ArrayList<>();
+            List<Node> controlFlow = new ArrayList<>();
             List<Node> others = new ArrayList<>();
 
             for (Node node : allNodes) {
                 if (node instanceof ConstIntNode || node instanceof ConstBoolNode) {
                     constants.add(node);
-                } else if (node instanceof JumpNode || node instanceof TernaryNode ||
+                } else if (node instanceof JumpNode || node instanceof IfNode || node instanceof TernaryNode ||
                     node instanceof ReturnNode) {
-                    returnJumpsAndTernaries.add(node);
+                    // these leave the block, so values only used by successor blocks must be computed before
+                    controlFlow.add(node);
                 } else {
                     others.add(node);
                 }
@@ -64,17 +64,11 @@ public class NodeOrderGenerator {
             }
             orderedNodes.addAll(nodes);
 
-            // Add jumps and ternaries at the end
-            orderedNodes.addAll(returnJumpsAndTernaries.stream().sorted((o1, o2) -> {
-                if (o1.debugInfo() instanceof DebugInfo.SourceInfo(Span span1)
-                    && o2.debugInfo() instanceof DebugInfo.SourceInfo(Span span2)) {
-                    Position end1 = span1.end();
-                    Position end2 = span2.end();
-                    if (end1.line() != end2.line()) {
-                        return Integer.compare(end1.line(), end2.line());
-                    } else {
-                        return Integer.compare(end1.column(), end2.column());
-                    }
+            // Add control flow at the end
+            orderedNodes.addAll(controlFlow.stream().sorted((o1, o2) -> {
+                if (o1.sourceSpan() != Span.NONE && o2.sourceSpan() != Span.NONE) {
+                    // offsets are ordered just like lines and columns
+                    return Integer.compare(Span.end(o1.sourceSpan()), Span.end(o2.sourceSpan()));
                 }
 
                 return 0;
@@ -105,19 +99,14 @@ public class NodeOrderGenerator {
                         continue;
                     }
 
-                    Optional<Node> first = graph.successors(successor).stream().findFirst();
-                    if (first.isPresent()) {
-                        successor = first.get();
-                    } else {
-                        // If no successors, we can skip this node
-                        continue;
+                    // every user of the projected value has to come after the node
+                    for (Node user : graph.successors(successor)) {
+                        addEdge(nodes, adjacencyList, inDegree, node, user);
                     }
+                    continue;
                 }
 
-                if (nodes.contains(successor)) {
-                    adjacencyList.get(node).add(successor);
-                    inDegree.put(successor, inDegree.get(successor) + 1);
-                }
+                addEdge(nodes, adjacencyList, inDegree, node, successor);
             }
         }
 
@@ -145,6 +134,15 @@ public class NodeOrderGenerator {
         return sortedNodes;
     }
 
+    private static void addEdge(
+        List<Node> nodes, Map<Node, List<Node>> adjacencyList, Map<Node, Integer> inDegree, Node from, Node to
+    ) {
+        if (to != from && nodes.contains(to)) {
+            adjacencyList.get(from).add(to);
+            inDegree.put(to, inDegree.get(to) + 1);
+        }
+    }
+
     private static boolean isRelevant(Node node) {
         return !(node instanceof ProjNode || node instanceof StartNode);
     }
@@ -0,0 +1,62 @@
+package edu.kit.kastel.vads.compiler.backend.compiler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/// Assembles with `as` and links a static binary with `ld`, without the C runtime.
+/// The assembly is streamed to `as` through stdin, and the program is entered at `_start`.
+public class BinutilsCompiler implements Compiler {
+  private static final Logger LOGGER = Logger.getLogger(BinutilsCompiler.class.getName());
+
+  @Override
+  public int compileTo(String assemblyCode, Path outputPath) {
+    Path objectFile = null;
+    try {
+      objectFile = Files.createTempFile("compiler", ".o");
+      int exitCode = run(assemblyCode, "as", "--64", "-o", objectFile.toString(), "-");
+      if (exitCode != 0) {
+        return exitCode;
+      }
+      return run("", "ld", "-static", "-nostdlib", "-z", "noexecstack",
+          objectFile.toString(), "-o", outputPath.toString());
+    } catch (IOException | UncheckedIOException e) {
+      LOGGER.log(Level.SEVERE, "Could not run binutils", e);
+      return -1;
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+      return -1;
+    } finally {
+      if (objectFile != null) {
+        try {
+          Files.deleteIfExists(objectFile);
+        } catch (IOException _) {
+          // only a leftover temporary file
+        }
+      }
+    }
+  }
+
+  private static int run(String input, String... command) throws IOException, InterruptedException {
+    var process = new ProcessBuilder(command).start();
+
+    // stdin, stdout and stderr are served concurrently, as each of them can block the process
+    Thread writer = Thread.startVirtualThread(() -> {
+      try (Writer stdin = process.outputWriter()) {
+        stdin.write(input);
+      } catch (IOException _) {
+        // the process exited early, its exit code tells why
+      }
+    });
+    Thread errorReader = Thread.startVirtualThread(() -> process.errorReader().lines().forEach(LOGGER::severe));
+    process.inputReader().lines().forEach(LOGGER::info);
+
+    writer.join();
+    errorReader.join();
+    return process.waitFor();
+  }
+}
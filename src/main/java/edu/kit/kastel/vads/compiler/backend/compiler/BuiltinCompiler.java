@@ -0,0 +1,53 @@
+package edu.kit.kastel.vads.compiler.backend.compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/// Assembles and links in process, without starting any external tools.
+///
+/// The entry point of the executable is `_start` if present, `main` otherwise.
+/// As no C runtime is linked, the program must exit using a syscall itself.
+/// Whenever the assembly is not supported by the built-in assembler, binutils are used instead.
+public class BuiltinCompiler implements Compiler {
+  private static final Logger LOGGER = Logger.getLogger(BuiltinCompiler.class.getName());
+
+  private final Compiler fallback = new BinutilsCompiler();
+
+  @Override
+  public int compileTo(String assemblyCode, Path outputPath) {
+    try {
+      X86Assembler.Program program = X86Assembler.assemble(assemblyCode);
+      Map<String, Integer> symbols = program.symbols();
+      Integer entry = symbols.getOrDefault("_start", symbols.get("main"));
+      if (entry == null) {
+        throw new X86Assembler.UnsupportedAssemblyException("Missing entry point");
+      }
+      // replace instead of overwrite, the old binary might still be running
+      Files.deleteIfExists(outputPath);
+      Files.write(outputPath, ElfWriter.executable(program.code(), entry));
+      makeExecutable(outputPath);
+      return 0;
+    } catch (X86Assembler.UnsupportedAssemblyException e) {
+      LOGGER.log(Level.FINE, "Falling back to binutils: {0}", e.getMessage());
+      return this.fallback.compileTo(assemblyCode, outputPath);
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "Could not write " + outputPath, e);
+      return -1;
+    }
+  }
+
+  private static void makeExecutable(Path path) throws IOException {
+    try {
+      Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rwxr-xr-x"));
+    } catch (UnsupportedOperationException _) {
+      if (!path.toFile().setExecutable(true, false)) {
+        throw new IOException("Could not make " + path + " executable");
+      }
+    }
+  }
+}
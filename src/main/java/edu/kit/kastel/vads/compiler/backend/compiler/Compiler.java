@@ -2,6 +2,6 @@ package edu.kit.kastel.vads.compiler.backend.compiler;
 
 import java.nio.file.Path;
 
-interface Compiler {
-  int compileTo(Path assemblyFilePath, Path outputPath);
+public interface Compiler {
+  int compileTo(String assemblyCode, Path outputPath);
 }
@@ -0,0 +1,77 @@
+package edu.kit.kastel.vads.compiler.backend.compiler;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/// Writes a statically linked x86-64 ELF executable consisting of a single code segment.
+///
+/// The headers and the code are mapped together at [#BASE_ADDRESS].
+/// As there is nothing to link, no section headers are written.
+final class ElfWriter {
+  private static final long BASE_ADDRESS = 0x400000;
+  private static final int ELF_HEADER_SIZE = 64;
+  private static final int PROGRAM_HEADER_SIZE = 56;
+  private static final int PROGRAM_HEADER_COUNT = 2;
+  private static final int CODE_OFFSET = ELF_HEADER_SIZE + PROGRAM_HEADER_COUNT * PROGRAM_HEADER_SIZE;
+
+  private static final short ET_EXEC = 2;
+  private static final short EM_X86_64 = 0x3E;
+  private static final int PT_LOAD = 1;
+  private static final int PT_GNU_STACK = 0x6474E551;
+  private static final int PF_X = 1;
+  private static final int PF_W = 2;
+  private static final int PF_R = 4;
+
+  private ElfWriter() {
+  }
+
+  /// {@return the bytes of an executable running the given code, starting at the given offset in it}
+  static byte[] executable(byte[] code, int entryOffset) {
+    int fileSize = CODE_OFFSET + code.length;
+    ByteBuffer buffer = ByteBuffer.allocate(fileSize).order(ByteOrder.LITTLE_ENDIAN);
+
+    // ELF header
+    buffer.put(new byte[] {0x7F, 'E', 'L', 'F'});
+    buffer.put((byte) 2); // 64 bit
+    buffer.put((byte) 1); // little endian
+    buffer.put((byte) 1); // ELF version
+    buffer.put((byte) 0); // System V ABI
+    buffer.put(new byte[8]); // ABI version and padding
+    buffer.putShort(ET_EXEC);
+    buffer.putShort(EM_X86_64);
+    buffer.putInt(1); // ELF version
+    buffer.putLong(BASE_ADDRESS + CODE_OFFSET + entryOffset);
+    buffer.putLong(ELF_HEADER_SIZE); // program header offset
+    buffer.putLong(0); // section header offset
+    buffer.putInt(0); // flags
+    buffer.putShort((short) ELF_HEADER_SIZE);
+    buffer.putShort((short) PROGRAM_HEADER_SIZE);
+    buffer.putShort((short) PROGRAM_HEADER_COUNT);
+    buffer.putShort((short) 64); // section header entry size
+    buffer.putShort((short) 0); // section header count
+    buffer.putShort((short) 0); // section name string table index
+
+    // the code segment, including the headers
+    buffer.putInt(PT_LOAD);
+    buffer.putInt(PF_R | PF_X);
+    buffer.putLong(0); // offset
+    buffer.putLong(BASE_ADDRESS); // virtual address
+    buffer.putLong(BASE_ADDRESS); // physical address
+    buffer.putLong(fileSize);
+    buffer.putLong(fileSize); // memory size
+    buffer.putLong(0x1000); // alignment
+
+    // non-executable stack, like gcc -z noexecstack
+    buffer.putInt(PT_GNU_STACK);
+    buffer.putInt(PF_R | PF_W);
+    buffer.putLong(0);
+    buffer.putLong(0);
+    buffer.putLong(0);
+    buffer.putLong(0);
+    buffer.putLong(0);
+    buffer.putLong(16);
+
+    buffer.put(code);
+    return buffer.array();
+  }
+}
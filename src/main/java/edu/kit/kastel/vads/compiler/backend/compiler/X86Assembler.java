@@ -0,0 +1,542 @@
+package edu.kit.kastel.vads.compiler.backend.compiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/// Assembles the subset of AT&T syntax x86-64 assembly emitted by the code generator to machine code.
+///
+/// Only a single text section is supported.
+/// All jumps and calls are encoded with 32-bit displacements, so every instruction has a fixed size
+/// and labels can be resolved in a single pass with a list of fixups.
+/// Anything outside the supported subset results in an [UnsupportedAssemblyException].
+final class X86Assembler {
+  private static final Set<String> IGNORED_DIRECTIVES = Set.of(".global", ".globl", ".text");
+  private static final Set<String> MNEMONICS = Set.of(
+      "mov", "movzx", "movzbl", "add", "sub", "and", "or", "xor", "cmp",
+      "sal", "shl", "sar", "shr", "not", "neg", "mul", "imul", "div", "idiv",
+      "cdq", "cltd", "ret", "syscall", "jmp", "call");
+  private static final Map<String, Integer> CONDITION_CODES = Map.ofEntries(
+      Map.entry("o", 0x0), Map.entry("no", 0x1),
+      Map.entry("b", 0x2), Map.entry("c", 0x2), Map.entry("nae", 0x2),
+      Map.entry("ae", 0x3), Map.entry("nb", 0x3), Map.entry("nc", 0x3),
+      Map.entry("e", 0x4), Map.entry("z", 0x4),
+      Map.entry("ne", 0x5), Map.entry("nz", 0x5),
+      Map.entry("be", 0x6), Map.entry("na", 0x6),
+      Map.entry("a", 0x7), Map.entry("nbe", 0x7),
+      Map.entry("s", 0x8), Map.entry("ns", 0x9),
+      Map.entry("p", 0xA), Map.entry("pe", 0xA),
+      Map.entry("np", 0xB), Map.entry("po", 0xB),
+      Map.entry("l", 0xC), Map.entry("nge", 0xC),
+      Map.entry("ge", 0xD), Map.entry("nl", 0xD),
+      Map.entry("le", 0xE), Map.entry("ng", 0xE),
+      Map.entry("g", 0xF), Map.entry("nle", 0xF));
+  private static final Map<String, Register> REGISTERS = registers();
+
+  /// Thrown for assembly that uses instructions or operands outside the supported subset.
+  static final class UnsupportedAssemblyException extends RuntimeException {
+    UnsupportedAssemblyException(String message) {
+      super(message);
+    }
+  }
+
+  /// The assembled code, along with the offsets of all labels in it.
+  record Program(byte[] code, Map<String, Integer> symbols) {
+  }
+
+  private sealed interface Operand {
+  }
+
+  private record Register(int code, int size) implements Operand {
+  }
+
+  private record Immediate(long value) implements Operand {
+  }
+
+  private record Memory(Register base, int displacement) implements Operand {
+  }
+
+  private record Label(String name) implements Operand {
+  }
+
+  private record Fixup(int position, String label, int line) {
+  }
+
+  private byte[] code = new byte[4096];
+  private int size;
+  private final Map<String, Integer> labels = new HashMap<>();
+  private final List<Fixup> fixups = new ArrayList<>();
+  private int line;
+
+  private X86Assembler() {
+  }
+
+  static Program assemble(String assembly) {
+    X86Assembler assembler = new X86Assembler();
+    for (String line : assembly.split("\n")) {
+      assembler.line++;
+      assembler.assembleLine(line);
+    }
+    assembler.resolveFixups();
+    return new Program(Arrays.copyOf(assembler.code, assembler.size), Map.copyOf(assembler.labels));
+  }
+
+  private void assembleLine(String line) {
+    int comment = line.indexOf('#');
+    String statement = (comment >= 0 ? line.substring(0, comment) : line).strip();
+    int colon;
+    while ((colon = labelEnd(statement)) >= 0) {
+      String label = statement.substring(0, colon);
+      if (this.labels.putIfAbsent(label, this.size) != null) {
+        throw unsupported("duplicate label " + label);
+      }
+      statement = statement.substring(colon + 1).strip();
+    }
+    if (statement.isEmpty()) {
+      return;
+    }
+    int space = indexOfWhitespace(statement);
+    String mnemonic = space < 0 ? statement : statement.substring(0, space);
+    String operandString = space < 0 ? "" : statement.substring(space).strip();
+    if (mnemonic.startsWith(".")) {
+      directive(mnemonic, operandString);
+      return;
+    }
+    List<Operand> operands = new ArrayList<>();
+    for (String operand : splitOperands(operandString)) {
+      operands.add(parseOperand(operand));
+    }
+    instruction(mnemonic, operands);
+  }
+
+  private static int labelEnd(String statement) {
+    for (int i = 0; i < statement.length(); i++) {
+      char c = statement.charAt(i);
+      if (c == ':') {
+        return i > 0 ? i : -1;
+      }
+      if (!(Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '$')) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private static int indexOfWhitespace(String statement) {
+    for (int i = 0; i < statement.length(); i++) {
+      if (Character.isWhitespace(statement.charAt(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static List<String> splitOperands(String operands) {
+    List<String> result = new ArrayList<>();
+    if (operands.isEmpty()) {
+      return result;
+    }
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < operands.length(); i++) {
+      switch (operands.charAt(i)) {
+        case '(' -> depth++;
+        case ')' -> depth--;
+        case ',' -> {
+          if (depth == 0) {
+            result.add(operands.substring(start, i).strip());
+            start = i + 1;
+          }
+        }
+        default -> {
+        }
+      }
+    }
+    result.add(operands.substring(start).strip());
+    return result;
+  }
+
+  private void directive(String directive, String arguments) {
+    if (IGNORED_DIRECTIVES.contains(directive)) {
+      return;
+    }
+    // the stack is never executable, so the marker section carries no information
+    if (directive.equals(".section") && arguments.startsWith(".note.GNU-stack")) {
+      return;
+    }
+    throw unsupported("directive " + directive);
+  }
+
+  private Operand parseOperand(String operand) {
+    if (operand.startsWith("%")) {
+      return register(operand);
+    }
+    if (operand.startsWith("$")) {
+      return new Immediate(number(operand.substring(1)));
+    }
+    int parenthesis = operand.indexOf('(');
+    if (parenthesis >= 0) {
+      if (!operand.endsWith(")")) {
+        throw unsupported("operand " + operand);
+      }
+      String displacement = operand.substring(0, parenthesis).strip();
+      Register base = register(operand.substring(parenthesis + 1, operand.length() - 1).strip());
+      if (base.size() != 64) {
+        throw unsupported("operand " + operand);
+      }
+      long value = displacement.isEmpty() ? 0 : number(displacement);
+      if (value != (int) value) {
+        throw unsupported("displacement " + displacement);
+      }
+      return new Memory(base, (int) value);
+    }
+    if (labelEnd(operand + ":") == operand.length()) {
+      return new Label(operand);
+    }
+    throw unsupported("operand " + operand);
+  }
+
+  private Register register(String name) {
+    Register register = REGISTERS.get(name);
+    if (register == null) {
+      throw unsupported("register " + name);
+    }
+    return register;
+  }
+
+  private long number(String number) {
+    try {
+      return Long.decode(number);
+    } catch (NumberFormatException _) {
+      throw unsupported("number " + number);
+    }
+  }
+
+  private void instruction(String mnemonic, List<Operand> operands) {
+    int suffixSize = 0;
+    if (!MNEMONICS.contains(mnemonic) && !isConditional(mnemonic)) {
+      String withoutSuffix = mnemonic.substring(0, mnemonic.length() - 1);
+      if (mnemonic.endsWith("l") && MNEMONICS.contains(withoutSuffix)) {
+        suffixSize = 32;
+      } else if (mnemonic.endsWith("q") && MNEMONICS.contains(withoutSuffix)) {
+        suffixSize = 64;
+      } else {
+        throw unsupported("instruction " + mnemonic);
+      }
+      mnemonic = withoutSuffix;
+    }
+    int size = switch (mnemonic) {
+      // their operands have fixed sizes, checked by the instructions themselves
+      case "movzx", "movzbl" -> 32;
+      // the shift amount in cl does not take part in the operation size
+      case "sal", "shl", "shr", "sar" -> operandSize(operands.subList(operands.size() > 1 ? 1 : 0, operands.size()),
+          suffixSize);
+      default -> mnemonic.startsWith("set") ? 8 : operandSize(operands, suffixSize);
+    };
+    switch (mnemonic) {
+      case "mov" -> mov(operands, size);
+      case "movzx", "movzbl" -> movzx(operands);
+      case "add" -> arithmetic(operands, size, 0, 0x01, 0x03);
+      case "or" -> arithmetic(operands, size, 1, 0x09, 0x0B);
+      case "and" -> arithmetic(operands, size, 4, 0x21, 0x23);
+      case "sub" -> arithmetic(operands, size, 5, 0x29, 0x2B);
+      case "xor" -> arithmetic(operands, size, 6, 0x31, 0x33);
+      case "cmp" -> arithmetic(operands, size, 7, 0x39, 0x3B);
+      case "sal", "shl" -> shift(operands, size, 4);
+      case "shr" -> shift(operands, size, 5);
+      case "sar" -> shift(operands, size, 7);
+      case "not" -> unary(operands, size, 2);
+      case "neg" -> unary(operands, size, 3);
+      case "mul" -> unary(operands, size, 4);
+      case "div" -> unary(operands, size, 6);
+      case "idiv" -> unary(operands, size, 7);
+      case "imul" -> imul(operands, size);
+      case "cdq", "cltd" -> simple(operands, 0x99);
+      case "ret" -> simple(operands, 0xC3);
+      case "syscall" -> simple(operands, 0x0F, 0x05);
+      case "jmp" -> jump(operands, 0xE9);
+      case "call" -> jump(operands, 0xE8);
+      default -> {
+        if (mnemonic.startsWith("j")) {
+          jump(operands, 0x0F, 0x80 | CONDITION_CODES.get(mnemonic.substring(1)));
+        } else {
+          setcc(operands, CONDITION_CODES.get(mnemonic.substring(3)));
+        }
+      }
+    }
+  }
+
+  private static boolean isConditional(String mnemonic) {
+    return mnemonic.startsWith("j") && CONDITION_CODES.containsKey(mnemonic.substring(1))
+        || mnemonic.startsWith("set") && CONDITION_CODES.containsKey(mnemonic.substring(3));
+  }
+
+  private int operandSize(List<Operand> operands, int suffixSize) {
+    int size = suffixSize;
+    boolean memory = false;
+    for (Operand operand : operands) {
+      if (operand instanceof Register(_, int registerSize)) {
+        if (size != 0 && size != registerSize) {
+          throw unsupported("mix of " + size + " and " + registerSize + " bit operands");
+        }
+        size = registerSize;
+      }
+      memory |= operand instanceof Memory;
+    }
+    if (size == 0 && memory) {
+      throw unsupported("memory operand without size suffix");
+    }
+    // only setcc and movzx, which fix their operand sizes, are encoded for byte registers
+    if (size == 8) {
+      throw unsupported("8 bit operation");
+    }
+    return size == 0 ? 32 : size;
+  }
+
+  private void mov(List<Operand> operands, int size) {
+    expectOperands(operands, 2);
+    Operand source = operands.get(0);
+    Operand destination = operands.get(1);
+    switch (source) {
+      // like gas, loads of 32 bit registers use the shorter encoding with the register in the opcode
+      case Immediate immediate when destination instanceof Register register && size == 32 -> {
+        if (register.code() >= 8) {
+          emit(0x41);
+        }
+        emit(0xB8 | register.code() & 7);
+        emitInt(immediate32(immediate, size));
+      }
+      case Immediate immediate when isRegisterOrMemory(destination) -> {
+        modRm(size, 0, destination, 0xC7);
+        emitInt(immediate32(immediate, size));
+      }
+      case Register register when isRegisterOrMemory(destination) -> modRm(size, register.code(), destination, 0x89);
+      case Memory memory when destination instanceof Register register -> modRm(size, register.code(), memory, 0x8B);
+      default -> throw unsupported("operands of mov");
+    }
+  }
+
+  private void movzx(List<Operand> operands) {
+    expectOperands(operands, 2);
+    if (!(operands.get(0) instanceof Register source && source.size() == 8 || operands.get(0) instanceof Memory)
+        || !(operands.get(1) instanceof Register destination) || destination.size() == 8) {
+      throw unsupported("operands of movzx");
+    }
+    modRm(destination.size(), destination.code(), operands.get(0), 0x0F, 0xB6);
+  }
+
+  private void arithmetic(List<Operand> operands, int size, int extension, int toRm, int fromRm) {
+    expectOperands(operands, 2);
+    Operand source = operands.get(0);
+    Operand destination = operands.get(1);
+    switch (source) {
+      case Immediate immediate when isRegisterOrMemory(destination) -> {
+        int value = immediate32(immediate, size);
+        if (value == (byte) value) {
+          modRm(size, extension, destination, 0x83);
+          emit(value);
+        } else if (destination instanceof Register(int code, _) && code == 0) {
+          // like gas, prefer the shorter encoding for eax and rax
+          if (size == 64) {
+            emit(0x48);
+          }
+          emit(extension << 3 | 0x05);
+          emitInt(value);
+        } else {
+          modRm(size, extension, destination, 0x81);
+          emitInt(value);
+        }
+      }
+      case Register register when isRegisterOrMemory(destination) -> modRm(size, register.code(), destination, toRm);
+      case Memory memory when destination instanceof Register register -> modRm(size, register.code(), memory, fromRm);
+      default -> throw unsupported("operands of arithmetic instruction");
+    }
+  }
+
+  private void shift(List<Operand> operands, int size, int extension) {
+    if (operands.size() == 1 && isRegisterOrMemory(operands.getFirst())) {
+      modRm(size, extension, operands.getFirst(), 0xD1);
+      return;
+    }
+    expectOperands(operands, 2);
+    Operand destination = operands.get(1);
+    if (!isRegisterOrMemory(destination)) {
+      throw unsupported("operands of shift");
+    }
+    switch (operands.get(0)) {
+      case Register(int code, int registerSize) when code == 1 && registerSize == 8 -> modRm(size, extension, destination, 0xD3);
+      case Immediate immediate -> {
+        modRm(size, extension, destination, 0xC1);
+        emit((int) immediate.value());
+      }
+      default -> throw unsupported("shift amount");
+    }
+  }
+
+  private void unary(List<Operand> operands, int size, int extension) {
+    expectOperands(operands, 1);
+    if (!isRegisterOrMemory(operands.getFirst())) {
+      throw unsupported("operand of unary instruction");
+    }
+    modRm(size, extension, operands.getFirst(), 0xF7);
+  }
+
+  private void imul(List<Operand> operands, int size) {
+    if (operands.size() == 1) {
+      unary(operands, size, 5);
+      return;
+    }
+    expectOperands(operands, 2);
+    if (!isRegisterOrMemory(operands.get(0)) || !(operands.get(1) instanceof Register destination)) {
+      throw unsupported("operands of imul");
+    }
+    modRm(size, destination.code(), operands.get(0), 0x0F, 0xAF);
+  }
+
+  private void setcc(List<Operand> operands, int conditionCode) {
+    expectOperands(operands, 1);
+    Operand destination = operands.getFirst();
+    if (!(destination instanceof Register register && register.size() == 8 || destination instanceof Memory)) {
+      throw unsupported("operand of setcc");
+    }
+    modRm(8, 0, destination, 0x0F, 0x90 | conditionCode);
+  }
+
+  private void simple(List<Operand> operands, int... opcode) {
+    expectOperands(operands, 0);
+    for (int b : opcode) {
+      emit(b);
+    }
+  }
+
+  private void jump(List<Operand> operands, int... opcode) {
+    expectOperands(operands, 1);
+    if (!(operands.getFirst() instanceof Label(String label))) {
+      throw unsupported("indirect jump");
+    }
+    for (int b : opcode) {
+      emit(b);
+    }
+    this.fixups.add(new Fixup(this.size, label, this.line));
+    emitInt(0);
+  }
+
+  /// Emits an optional REX prefix, the opcode and a ModRM byte (with SIB and displacement as needed).
+  private void modRm(int size, int reg, Operand rm, int... opcode) {
+    int rex = size == 64 ? 0b1000 : 0;
+    if (reg >= 8) {
+      rex |= 0b0100;
+    }
+    int base = switch (rm) {
+      case Register register -> register.code();
+      case Memory memory -> memory.base().code();
+      default -> throw unsupported("operand");
+    };
+    if (base >= 8) {
+      rex |= 0b0001;
+    }
+    // without a REX prefix, the byte registers 4 to 7 are ah, ch, dh and bh instead of spl, bpl, sil and dil
+    if (rex != 0 || rm instanceof Register(int code, int registerSize) && registerSize == 8 && code >= 4) {
+      emit(0x40 | rex);
+    }
+    if (size == 16) {
+      throw unsupported("16 bit operand");
+    }
+    for (int b : opcode) {
+      emit(b);
+    }
+    if (rm instanceof Memory(_, int displacement)) {
+      // like gas, a zero displacement is left out, except for rbp and r13 which cannot be addressed without one
+      int mod = displacement == 0 && (base & 7) != 0b101 ? 0b00 : displacement == (byte) displacement ? 0b01 : 0b10;
+      emit(mod << 6 | (reg & 7) << 3 | (base & 7));
+      if ((base & 7) == 0b100) {
+        // rsp and r12 can only be addressed using a SIB byte
+        emit(0x24);
+      }
+      if (mod == 0b01) {
+        emit(displacement);
+      } else if (mod == 0b10) {
+        emitInt(displacement);
+      }
+    } else {
+      emit(0b11 << 6 | (reg & 7) << 3 | (base & 7));
+    }
+  }
+
+  private void resolveFixups() {
+    for (Fixup fixup : this.fixups) {
+      Integer target = this.labels.get(fixup.label());
+      if (target == null) {
+        this.line = fixup.line();
+        throw unsupported("undefined label " + fixup.label());
+      }
+      int relative = target - (fixup.position() + 4);
+      for (int i = 0; i < 4; i++) {
+        this.code[fixup.position() + i] = (byte) (relative >> (8 * i));
+      }
+    }
+  }
+
+  private static boolean isRegisterOrMemory(Operand operand) {
+    return operand instanceof Register || operand instanceof Memory;
+  }
+
+  private int immediate32(Immediate immediate, int size) {
+    long value = immediate.value();
+    // values up to 2^32 - 1 are accepted for 32 bit operations, just like gas does,
+    // while 64 bit operations sign-extend their immediate
+    long max = size == 64 ? Integer.MAX_VALUE : 0xFFFF_FFFFL;
+    if (value < Integer.MIN_VALUE || value > max) {
+      throw unsupported("immediate " + value);
+    }
+    return (int) value;
+  }
+
+  private void expectOperands(List<Operand> operands, int count) {
+    if (operands.size() != count) {
+      throw unsupported("expected " + count + " operands, got " + operands.size());
+    }
+  }
+
+  private void emit(int b) {
+    if (this.size == this.code.length) {
+      this.code = Arrays.copyOf(this.code, this.code.length * 2);
+    }
+    this.code[this.size++] = (byte) b;
+  }
+
+  private void emitInt(int value) {
+    for (int i = 0; i < 4; i++) {
+      emit(value >> (8 * i));
+    }
+  }
+
+  private UnsupportedAssemblyException unsupported(String what) {
+    return new UnsupportedAssemblyException("Unsupported " + what + " in line " + this.line);
+  }
+
+  private static Map<String, Register> registers() {
+    Map<String, Register> registers = new HashMap<>();
+    String[] legacy = {"ax", "cx", "dx", "bx", "sp", "bp", "si", "di"};
+    for (int i = 0; i < legacy.length; i++) {
+      registers.put("%r" + legacy[i], new Register(i, 64));
+      registers.put("%e" + legacy[i], new Register(i, 32));
+    }
+    for (int i = 8; i < 16; i++) {
+      registers.put("%r" + i, new Register(i, 64));
+      registers.put("%r" + i + "d", new Register(i, 32));
+    }
+    // ah, ch, dh and bh cannot be encoded together with a REX prefix, so they are not supported
+    String[] bytes = {"al", "cl", "dl", "bl", "spl", "bpl", "sil", "dil"};
+    for (int i = 0; i < bytes.length; i++) {
+      registers.put("%" + bytes[i], new Register(i, 8));
+    }
+    for (int i = 8; i < 16; i++) {
+      registers.put("%r" + i + "b", new Register(i, 8));
+    }
+    return Map.copyOf(registers);
+  }
+}
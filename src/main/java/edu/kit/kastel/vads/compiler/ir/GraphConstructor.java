@@ -14,21 +14,28 @@ import edu.kit.kastel.vads.compiler.ir.node.unary.UnaryMinusNode;
 import edu.kit.kastel.vads.compiler.ir.optimize.Optimizer;
 import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.symbol.NameMap;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.jspecify.annotations.Nullable;
 
 class GraphConstructor {
 
     private final Optimizer optimizer;
     private final IrGraph graph;
-    private final Map<Name, Map<Block, Node>> currentDef = new HashMap<>();
-    private final Map<Block, Map<Name, Phi>> incompletePhis = new HashMap<>();
+    private final NameMap<Map<Block, Node>> currentDef = new NameMap<>();
+    private final Map<Block, NameMap<Phi>> incompletePhis = new HashMap<>();
     private final Map<Block, Node> currentSideEffect = new HashMap<>();
     private final Map<Block, Phi> incompleteSideEffectPhis = new HashMap<>();
     private final Set<Block> sealedBlocks = new HashSet<>();
+    private final Definitions sideEffects = new SideEffectDefinitions();
     private final HashSet<String> blockNames = new HashSet<>();
     private Block currentBlock;
     private int nextBlockId = 1;
@@ -201,42 +208,88 @@ class GraphConstructor {
     }
 
     void writeVariable(Name variable, Block block, Node value) {
-        this.currentDef.computeIfAbsent(variable, _ -> new HashMap<>()).put(block, value);
+        Map<Block, Node> definitions = this.currentDef.get(variable);
+        if (definitions == null) {
+            definitions = new HashMap<>();
+            this.currentDef.put(variable, definitions);
+        }
+        definitions.put(block, value);
     }
 
     Node readVariable(Name variable, Block block) {
-        Node node = this.currentDef.getOrDefault(variable, Map.of()).get(block);
-        if (node != null) {
-            return node;
-        }
-        return readVariableRecursive(variable, block);
+        return read(new VariableDefinitions(variable), block);
     }
 
+    Node addPhiOperands(Name variable, Phi phi) {
+        return addPhiOperands(new VariableDefinitions(variable), phi);
+    }
+
+    /// Looks up the value of a variable or of the side effects in a block, following the predecessors
+    /// of the block if it is not defined there.
+    /// The blocks waiting for the value of a predecessor are kept on a stack instead of recursing,
+    /// so long chains of blocks, like the ones of `&&` chains, are only bounded by the heap.
+    private Node read(Definitions definitions, Block block) {
+        Deque<PendingRead> path = new ArrayDeque<>();
+        Block current = block;
+        while (true) {
+            Node value = definitions.get(current);
+            if (value == null && !this.sealedBlocks.contains(current)) {
+                Phi phi = new Phi(current);
+                definitions.putIncomplete(current, phi);
+                definitions.put(current, phi);
+                value = phi;
+            } else if (value == null) {
+                List<? extends Node> predecessors = current.predecessors();
+                if (predecessors.size() == 1 && definitions.forwards(predecessors.getFirst().block())) {
+                    path.push(new PendingRead(current, null));
+                } else {
+                    Phi phi = new Phi(current);
+                    definitions.put(current, phi);
+                    path.push(new PendingRead(current, phi));
+                }
+            }
 
-    private Node readVariableRecursive(Name variable, Block block) {
-        Node val;
-        if (!this.sealedBlocks.contains(block)) {
-            val = new Phi(block);
-            this.incompletePhis.computeIfAbsent(block, _ -> new HashMap<>()).put(variable, (Phi) val);
-        } else if (block.predecessors().size() == 1) {
-            val = readVariable(variable, block.predecessors().getFirst().block());
-        } else {
-            val = new Phi(block);
-            writeVariable(variable, block, val);
-            val = addPhiOperands(variable, (Phi) val);
+            // hand the value to the blocks waiting for it, until one needs the value of another predecessor
+            PendingRead pending;
+            while ((pending = path.peek()) != null) {
+                if (value != null) {
+                    pending.accept(value);
+                }
+                Block predecessor = pending.nextPredecessor();
+                if (predecessor != null) {
+                    current = predecessor;
+                    break;
+                }
+                path.pop();
+                value = pending.phi == null ? pending.value : tryRemoveTrivialPhi(pending.phi);
+                definitions.put(pending.block, value);
+            }
+            if (pending == null) {
+                return value;
+            }
         }
-        writeVariable(variable, block, val);
-        return val;
     }
 
-    Node addPhiOperands(Name variable, Phi phi) {
+    private Node addPhiOperands(Definitions definitions, Phi phi) {
         for (Node pred : phi.block().predecessors()) {
-            phi.appendOperand(readVariable(variable, pred.block()));
+            phi.appendOperand(read(definitions, pred.block()));
         }
         return tryRemoveTrivialPhi(phi);
     }
 
+    /// Removes the phi if it merges a single value, and then the phis using it that became trivial.
+    /// The phis to check are kept on a stack instead of recursing.
+    /// {@return the value replacing the phi, or the phi if it is not trivial}
     Node tryRemoveTrivialPhi(Phi phi) {
+        Deque<Phi> phis = new ArrayDeque<>();
+        Node result = removeIfTrivial(phi, phis);
+        while (!phis.isEmpty()) {
+            removeIfTrivial(phis.pop(), phis);
+        }
+        return result;
+    }
+
+    private Node removeIfTrivial(Phi phi, Deque<Phi> phis) {
         Node same = null;
         for (Node op : phi.predecessors()) {
             if (op == same || op == phi) {
@@ -257,19 +310,21 @@ class GraphConstructor {
         users.remove(phi);
 
         // Reroute all uses of phi to same and remove phi
+        List<Phi> phiUsers = new ArrayList<>();
         for (Node use : users) {
             for (int i = 0; i < use.predecessors().size(); i++) {
                 if (use.predecessor(i) == phi) {
                     use.setPredecessor(i, same);
                 }
             }
+            if (use instanceof Phi phiUse) {
+                phiUsers.add(phiUse);
+            }
         }
 
-        // Try to recursively remove all phi users, which might have become trivial
-        for (Node use : users) {
-            if (use instanceof Phi) {
-                tryRemoveTrivialPhi((Phi) use);
-            }
+        // All phi users might have become trivial, they are checked next in the order of the users
+        for (Phi phiUse : phiUsers.reversed()) {
+            phis.push(phiUse);
         }
         return same;
     }
@@ -281,8 +336,9 @@ class GraphConstructor {
     }
 
     void sealBlock(Block block) {
-        for (Map.Entry<Name, Phi> entry : this.incompletePhis.getOrDefault(block, Map.of()).entrySet()) {
-            addPhiOperands(entry.getKey(), entry.getValue());
+        NameMap<Phi> phis = this.incompletePhis.get(block);
+        if (phis != null) {
+            phis.forEach(this::addPhiOperands);
         }
         Phi sideEffectPhi = this.incompleteSideEffectPhis.get(block);
         if (sideEffectPhi != null) {
@@ -304,35 +360,11 @@ class GraphConstructor {
     }
 
     private Node readSideEffect(Block block) {
-        Node node = this.currentSideEffect.get(block);
-        if (node != null) {
-            return node;
-        }
-        return readSideEffectRecursive(block);
-    }
-
-    private Node readSideEffectRecursive(Block block) {
-        Node val;
-        if (!this.sealedBlocks.contains(block)) {
-            val = new Phi(block);
-            Phi old = this.incompleteSideEffectPhis.put(block, (Phi) val);
-            assert old == null : "double readSideEffectRecursive for " + block;
-        } else if (block.predecessors().size() == 1 && this.currentSideEffect.get(block.predecessors().getFirst().block()) != null) {
-            val = readSideEffect(block.predecessors().getFirst().block());
-        } else {
-            val = new Phi(block);
-            writeSideEffect(block, val);
-            val = addPhiOperands((Phi) val);
-        }
-        writeSideEffect(block, val);
-        return val;
+        return read(this.sideEffects, block);
     }
 
     Node addPhiOperands(Phi phi) {
-        for (Node pred : phi.block().predecessors()) {
-            phi.appendOperand(readSideEffect(pred.block()));
-        }
-        return tryRemoveTrivialPhi(phi);
+        return addPhiOperands(this.sideEffects, phi);
     }
 
     private String getBlockName(FunctionTree function, String suffix) {
@@ -351,4 +383,100 @@ class GraphConstructor {
         return name;
     }
 
+    /// The definitions of a variable or of the side effects in each block, which are looked up the same way.
+    private interface Definitions {
+        @Nullable Node get(Block block);
+
+        void put(Block block, Node value);
+
+        /// Remembers a phi of a block that is not sealed, it gets its operands once the block is sealed.
+        void putIncomplete(Block block, Phi phi);
+
+        /// {@return whether a block with this single predecessor takes its value without a phi}
+        boolean forwards(Block predecessor);
+    }
+
+    private final class VariableDefinitions implements Definitions {
+        private final Name variable;
+
+        VariableDefinitions(Name variable) {
+            this.variable = variable;
+        }
+
+        @Override
+        public @Nullable Node get(Block block) {
+            Map<Block, Node> definitions = currentDef.get(this.variable);
+            return definitions == null ? null : definitions.get(block);
+        }
+
+        @Override
+        public void put(Block block, Node value) {
+            writeVariable(this.variable, block, value);
+        }
+
+        @Override
+        public void putIncomplete(Block block, Phi phi) {
+            incompletePhis.computeIfAbsent(block, _ -> new NameMap<>()).put(this.variable, phi);
+        }
+
+        @Override
+        public boolean forwards(Block predecessor) {
+            return true;
+        }
+    }
+
+    private final class SideEffectDefinitions implements Definitions {
+        @Override
+        public @Nullable Node get(Block block) {
+            return currentSideEffect.get(block);
+        }
+
+        @Override
+        public void put(Block block, Node value) {
+            writeSideEffect(block, value);
+        }
+
+        @Override
+        public void putIncomplete(Block block, Phi phi) {
+            Phi old = incompleteSideEffectPhis.put(block, phi);
+            assert old == null : "double readSideEffect for " + block;
+        }
+
+        @Override
+        public boolean forwards(Block predecessor) {
+            return currentSideEffect.get(predecessor) != null;
+        }
+    }
+
+    /// A block waiting for the value of its predecessors, see [#read].
+    private static final class PendingRead {
+        private final Block block;
+        // null if the block takes the value of its single predecessor
+        private final @Nullable Phi phi;
+        private @Nullable Node value;
+        private int nextPredecessor;
+
+        PendingRead(Block block, @Nullable Phi phi) {
+            this.block = block;
+            this.phi = phi;
+        }
+
+        void accept(Node value) {
+            if (this.phi == null) {
+                this.value = value;
+            } else {
+                this.phi.appendOperand(value);
+            }
+        }
+
+        /// {@return the predecessor to read the value of next, or `null` once all values are known}
+        @Nullable Block nextPredecessor() {
+            List<? extends Node> predecessors = this.block.predecessors();
+            if (this.nextPredecessor == predecessors.size()) {
+                return null;
+            }
+            return predecessors.get(this.nextPredecessor++).block();
+        }
+    }
+
 }
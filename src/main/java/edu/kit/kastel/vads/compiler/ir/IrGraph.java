@@ -1,5 +1,6 @@
 package edu.kit.kastel.vads.compiler.ir;
 
+import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.ir.node.block.Block;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 
@@ -19,6 +20,7 @@ public class IrGraph {
     private final Block startBlock;
     private final Block endBlock;
     private final String name;
+    private long sourceSpan = Span.NONE;
 
     public IrGraph(String name) {
         this.name = name;
@@ -51,6 +53,17 @@ public class IrGraph {
         return this.endBlock;
     }
 
+    /// Sets the source span that is attached to all nodes created in this graph from now on.
+    /// Keeping it per graph allows translating multiple functions in parallel.
+    public void setSourceSpan(long sourceSpan) {
+        this.sourceSpan = sourceSpan;
+    }
+
+    /// {@return the source span that is attached to newly created nodes}
+    public long sourceSpan() {
+        return this.sourceSpan;
+    }
+
     /// {@return the name of this graph}
     public String name() {
         return name;
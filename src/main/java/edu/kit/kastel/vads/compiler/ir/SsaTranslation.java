@@ -6,8 +6,6 @@ import edu.kit.kastel.vads.compiler.ir.node.binary.DivNode;
 import edu.kit.kastel.vads.compiler.ir.node.binary.ModNode;
 import edu.kit.kastel.vads.compiler.ir.node.block.Block;
 import edu.kit.kastel.vads.compiler.ir.optimize.Optimizer;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
 import edu.kit.kastel.vads.compiler.parser.ast.ParameterTree;
@@ -34,11 +32,13 @@ import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
-import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.analysis.ControlFlowFacts;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Optional;
 import java.util.function.BinaryOperator;
+import org.jspecify.annotations.Nullable;
 
 /// SSA translation as described in
 /// [`Simple and Efficient Construction of Static Single Assignment Form`](https://compilers.cs.uni-saarland.de/papers/bbhlmz13cc.pdf).
@@ -51,6 +51,23 @@ public class SsaTranslation {
     private record LoopInfo(Block conditionBlock, Block bodyBlock, Block afterBlock) {
     }
 
+    /// An operation translated up to one of its operands, see [SsaTranslationVisitor#translateOperation].
+    private static final class PendingOperation {
+        private final ExpressionTree operation;
+        private int step;
+        // the value of the lhs or true branch
+        private @Nullable Node first;
+        private @Nullable Block trueBlock;
+        private @Nullable Block falseBlock;
+        private @Nullable Block joinBlock;
+        private @Nullable Node trueExit;
+        private @Nullable Node result;
+
+        PendingOperation(ExpressionTree operation) {
+            this.operation = operation;
+        }
+    }
+
     private final FunctionTree function;
     private final GraphConstructor constructor;
 
@@ -60,7 +77,7 @@ public class SsaTranslation {
     }
 
     public IrGraph translate() {
-        var visitor = new SsaTranslationVisitor();
+        var visitor = new SsaTranslationVisitor(this.constructor.graph());
         this.function.accept(visitor, this);
         return this.constructor.graph();
     }
@@ -83,15 +100,27 @@ public class SsaTranslation {
         @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
         private static final Optional<Node> NOT_AN_EXPRESSION = Optional.empty();
 
-        private final Deque<DebugInfo> debugStack = new ArrayDeque<>();
+        // the enclosing spans, kept unboxed as every visited tree pushes one
+        private long[] spanStack = new long[16];
+        private int spanDepth;
+        private final IrGraph graph;
+        // the tree is not changed while translating it
+        private final ControlFlowFacts controlFlow = new ControlFlowFacts();
+
+        SsaTranslationVisitor(IrGraph graph) {
+            this.graph = graph;
+        }
 
         private void pushSpan(Tree tree) {
-            this.debugStack.push(DebugInfoHelper.getDebugInfo());
-            DebugInfoHelper.setDebugInfo(new DebugInfo.SourceInfo(tree.span()));
+            if (this.spanDepth == this.spanStack.length) {
+                this.spanStack = Arrays.copyOf(this.spanStack, this.spanDepth * 2);
+            }
+            this.spanStack[this.spanDepth++] = this.graph.sourceSpan();
+            this.graph.setSourceSpan(tree.span());
         }
 
         private void popSpan() {
-            DebugInfoHelper.setDebugInfo(this.debugStack.pop());
+            this.graph.setSourceSpan(this.spanStack[--this.spanDepth]);
         }
 
         @Override
@@ -129,10 +158,11 @@ public class SsaTranslation {
 
         @Override
         public Optional<Node> visit(BinaryOperationTree binaryOperationTree, SsaTranslation data) {
-            pushSpan(binaryOperationTree);
-            Node lhs = binaryOperationTree.lhs().accept(this, data).orElseThrow();
-            Node rhs = binaryOperationTree.rhs().accept(this, data).orElseThrow();
-            Node res = switch (binaryOperationTree.operatorType()) {
+            return Optional.of(translateOperation(binaryOperationTree, data));
+        }
+
+        private Node binary(BinaryOperationTree binaryOperationTree, Node lhs, Node rhs, SsaTranslation data) {
+            return switch (binaryOperationTree.operatorType()) {
                 case MINUS -> data.constructor.newSub(lhs, rhs);
                 case PLUS -> data.constructor.newAdd(lhs, rhs);
                 case MUL -> data.constructor.newMul(lhs, rhs);
@@ -154,8 +184,6 @@ public class SsaTranslation {
                 default ->
                     throw new IllegalArgumentException("not a binary expression operator " + binaryOperationTree.operatorType());
             };
-            popSpan();
-            return Optional.of(res);
         }
 
         @Override
@@ -326,45 +354,7 @@ public class SsaTranslation {
 
         @Override
         public Optional<Node> visit(TernaryOperationTree ternaryOperationTree, SsaTranslation data) {
-            pushSpan(ternaryOperationTree);
-
-            // Evaluate condition
-            Node condition = ternaryOperationTree.condition().accept(this, data).orElseThrow();
-
-            // Create blocks
-            Block trueBlock = data.constructor.newBlock(data.function, "ternary_true");
-            Block falseBlock = data.constructor.newBlock(data.function, "ternary_false");
-            Block joinBlock = data.constructor.newBlock(data.function, "ternary_join");
-            Node ternaryNode = data.constructor.newTernary(condition, trueBlock, falseBlock);
-            trueBlock.addPredecessor(ternaryNode);
-            falseBlock.addPredecessor(ternaryNode);
-
-            // true branch
-            data.constructor.setCurrentBlock(trueBlock);
-            Node trueResult = ternaryOperationTree.trueBranch().accept(this, data).orElseThrow();
-            Node trueExit = data.constructor.newJump(joinBlock);
-            data.constructor.sealBlock(trueBlock);
-
-            // false branch
-            data.constructor.setCurrentBlock(falseBlock);
-            Node falseResult = ternaryOperationTree.falseBranch().accept(this, data).orElseThrow();
-            Node falseExit = data.constructor.newJump(joinBlock);
-            data.constructor.sealBlock(falseBlock);
-
-            // join block
-            joinBlock.addPredecessor(trueExit);
-            joinBlock.addPredecessor(falseExit);
-            data.constructor.setCurrentBlock(joinBlock);
-            data.constructor.sealBlock(joinBlock);
-
-            // Create phi node to merge the values
-            Phi phi = new Phi(joinBlock);
-            phi.addPredecessor(trueResult);
-            phi.addPredecessor(falseResult);
-            Node result = data.constructor.tryRemoveTrivialPhi(phi);
-
-            popSpan();
-            return Optional.of(result);
+            return Optional.of(translateOperation(ternaryOperationTree, data));
         }
 
         @Override
@@ -374,17 +364,120 @@ public class SsaTranslation {
 
         @Override
         public Optional<Node> visit(UnaryOperationTree unaryOperationTree, SsaTranslation data) {
-            pushSpan(unaryOperationTree);
-            Node operand = unaryOperationTree.operand().accept(this, data).orElseThrow();
-            Node res = switch (unaryOperationTree.operator().type()) {
+            return Optional.of(translateOperation(unaryOperationTree, data));
+        }
+
+        private Node unary(UnaryOperationTree unaryOperationTree, Node operand, SsaTranslation data) {
+            return switch (unaryOperationTree.operator().type()) {
                 case NOT -> data.constructor.newNot(operand);
                 case BITWISE_NOT -> data.constructor.newBitwiseNot(operand);
                 case UNARY_MINUS -> data.constructor.newUnaryMinus(operand);
                 default ->
                     throw new IllegalArgumentException("not a unary expression operator " + unaryOperationTree.operator().type());
             };
-            popSpan();
-            return Optional.of(res);
+        }
+
+        /// Translates an operation and the operations nested in it.
+        /// The operations on the path to the one translated are kept on a stack instead of recursing,
+        /// so the depth of an expression is only bounded by the heap.
+        private Node translateOperation(ExpressionTree operation, SsaTranslation data) {
+            Deque<PendingOperation> path = new ArrayDeque<>();
+            PendingOperation pending = new PendingOperation(operation);
+            pushSpan(operation);
+            @Nullable Node value = null;
+            while (true) {
+                ExpressionTree operand = step(pending, value, data);
+                if (operand == null) {
+                    value = pending.result;
+                    popSpan();
+                    pending = path.poll();
+                    if (pending == null) {
+                        return value;
+                    }
+                } else if (operand instanceof BinaryOperationTree || operand instanceof TernaryOperationTree
+                    || operand instanceof UnaryOperationTree) {
+                    path.push(pending);
+                    pending = new PendingOperation(operand);
+                    pushSpan(operand);
+                    value = null;
+                } else {
+                    value = operand.accept(this, data).orElseThrow();
+                }
+            }
+        }
+
+        /// Continues an operation with the value of its operand translated last.
+        /// {@return the next operand to translate, or `null` once the result of the operation is set}
+        private @Nullable ExpressionTree step(PendingOperation pending, @Nullable Node value, SsaTranslation data) {
+            int step = pending.step++;
+            switch (pending.operation) {
+                case BinaryOperationTree binaryOperationTree -> {
+                    switch (step) {
+                        case 0 -> {
+                            return binaryOperationTree.lhs();
+                        }
+                        case 1 -> {
+                            pending.first = value;
+                            return binaryOperationTree.rhs();
+                        }
+                        default -> pending.result = binary(binaryOperationTree, pending.first, value, data);
+                    }
+                }
+                case UnaryOperationTree unaryOperationTree -> {
+                    if (step == 0) {
+                        return unaryOperationTree.operand();
+                    }
+                    pending.result = unary(unaryOperationTree, value, data);
+                }
+                case TernaryOperationTree ternaryOperationTree -> {
+                    switch (step) {
+                        case 0 -> {
+                            // Evaluate condition
+                            return ternaryOperationTree.condition();
+                        }
+                        case 1 -> {
+                            // Create blocks
+                            pending.trueBlock = data.constructor.newBlock(data.function, "ternary_true");
+                            pending.falseBlock = data.constructor.newBlock(data.function, "ternary_false");
+                            pending.joinBlock = data.constructor.newBlock(data.function, "ternary_join");
+                            Node ternaryNode = data.constructor.newTernary(value, pending.trueBlock, pending.falseBlock);
+                            pending.trueBlock.addPredecessor(ternaryNode);
+                            pending.falseBlock.addPredecessor(ternaryNode);
+
+                            // true branch
+                            data.constructor.setCurrentBlock(pending.trueBlock);
+                            return ternaryOperationTree.trueBranch();
+                        }
+                        case 2 -> {
+                            pending.first = value;
+                            pending.trueExit = data.constructor.newJump(pending.joinBlock);
+                            data.constructor.sealBlock(pending.trueBlock);
+
+                            // false branch
+                            data.constructor.setCurrentBlock(pending.falseBlock);
+                            return ternaryOperationTree.falseBranch();
+                        }
+                        default -> {
+                            Node falseExit = data.constructor.newJump(pending.joinBlock);
+                            data.constructor.sealBlock(pending.falseBlock);
+
+                            // join block
+                            pending.joinBlock.addPredecessor(pending.trueExit);
+                            pending.joinBlock.addPredecessor(falseExit);
+                            data.constructor.setCurrentBlock(pending.joinBlock);
+                            data.constructor.sealBlock(pending.joinBlock);
+
+                            // Create phi node to merge the values
+                            Phi phi = new Phi(pending.joinBlock);
+                            phi.addPredecessor(pending.first);
+                            phi.addPredecessor(value);
+                            pending.result = data.constructor.tryRemoveTrivialPhi(phi);
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("not an operation " + pending.operation);
+            }
+            return null;
         }
 
         @Override
@@ -440,8 +533,8 @@ public class SsaTranslation {
             return data.constructor.newResultProj(divMod);
         }
 
-        private static boolean endsWithReturn(StatementTree statement) {
-            return SemanticAnalysis.containsReturn(statement);
+        private boolean endsWithReturn(StatementTree statement) {
+            return this.controlFlow.returns(statement);
         }
     }
 
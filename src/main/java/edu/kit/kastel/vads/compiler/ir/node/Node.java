@@ -1,5 +1,6 @@
 package edu.kit.kastel.vads.compiler.ir.node;
 
+import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.ir.node.binary.BinaryOperationNode;
 import edu.kit.kastel.vads.compiler.ir.node.block.*;
 import edu.kit.kastel.vads.compiler.ir.node.constant.ConstBoolNode;
@@ -7,9 +8,7 @@ import edu.kit.kastel.vads.compiler.ir.node.constant.ConstIntNode;
 import edu.kit.kastel.vads.compiler.ir.node.control.IfNode;
 import edu.kit.kastel.vads.compiler.ir.node.control.TernaryNode;
 import edu.kit.kastel.vads.compiler.ir.node.unary.UnaryOperationNode;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -24,7 +23,7 @@ public abstract sealed class Node permits BinaryOperationNode, Block, ConstIntNo
     private final IrGraph graph;
     private final Block block;
     private final List<Node> predecessors = new ArrayList<>();
-    private final DebugInfo debugInfo;
+    private final long sourceSpan;
 
     protected Node(Block block, Node... predecessors) {
         this.graph = block.graph();
@@ -33,14 +32,14 @@ public abstract sealed class Node permits BinaryOperationNode, Block, ConstIntNo
         for (Node predecessor : predecessors) {
             graph.registerSuccessor(predecessor, this);
         }
-        this.debugInfo = DebugInfoHelper.getDebugInfo();
+        this.sourceSpan = this.graph.sourceSpan();
     }
 
     protected Node(IrGraph graph) {
         assert this.getClass() == Block.class : "must be used by Block only";
         this.graph = graph;
         this.block = (Block) this;
-        this.debugInfo = DebugInfo.NoInfo.INSTANCE;
+        this.sourceSpan = Span.NONE;
     }
 
     public final IrGraph graph() {
@@ -79,8 +78,9 @@ public abstract sealed class Node permits BinaryOperationNode, Block, ConstIntNo
         return "";
     }
 
-    public DebugInfo debugInfo() {
-        return debugInfo;
+    /// {@return the span of the source this node was translated from, or [Span#NONE]}
+    public long sourceSpan() {
+        return sourceSpan;
     }
 
     protected static int predecessorHash(Node node, int predecessor) {
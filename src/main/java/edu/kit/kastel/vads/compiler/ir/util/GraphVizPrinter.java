@@ -1,5 +1,6 @@
 package edu.kit.kastel.vads.compiler.ir.util;
 
+import edu.kit.kastel.vads.compiler.LineTable;
 import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
 import edu.kit.kastel.vads.compiler.ir.node.block.Block;
@@ -21,14 +22,17 @@ public class GraphVizPrinter {
     private final Map<Node, Integer> ids = new HashMap<>();
     private final StringBuilder builder = new StringBuilder();
     private final IrGraph graph;
+    private final LineTable lines;
     private int counter = 0;
 
-    public GraphVizPrinter(IrGraph graph) {
+    public GraphVizPrinter(IrGraph graph, LineTable lines) {
         this.graph = graph;
+        this.lines = lines;
     }
 
-    public static String print(IrGraph graph) {
-        GraphVizPrinter printer = new GraphVizPrinter(graph);
+    /// @param lines the lines of the source the graph was translated from, to resolve spans
+    public static String print(IrGraph graph, LineTable lines) {
+        GraphVizPrinter printer = new GraphVizPrinter(graph, lines);
         printer.prepare(graph.endBlock(), new HashSet<>());
         printer.print();
         return printer.builder.toString();
@@ -89,10 +93,10 @@ public class GraphVizPrinter {
                     .append(" [label=\"")
                     .append(labelFor(node))
                     .append("\"");
-                if (node.debugInfo() instanceof DebugInfo.SourceInfo(Span span)) {
+                if (node.sourceSpan() != Span.NONE) {
                     this.builder.append(", tooltip=\"")
                         .append("source span: ")
-                        .append(span)
+                        .append(this.lines.format(node.sourceSpan()))
                         .append("\"");
                 }
                 this.builder.append("];\n");
@@ -1,43 +1,133 @@
 package edu.kit.kastel.vads.compiler.lexer;
 
-import edu.kit.kastel.vads.compiler.Position;
+import edu.kit.kastel.vads.compiler.LineTable;
 import edu.kit.kastel.vads.compiler.Span;
-import edu.kit.kastel.vads.compiler.lexer.tokens.ErrorToken;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Identifier;
+import edu.kit.kastel.vads.compiler.lexer.TokenBuffer.Kind;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword;
-import edu.kit.kastel.vads.compiler.lexer.tokens.NumberLiteral;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Operator;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Lexeme;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Operator.OperatorType;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Separator;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Separator.SeparatorType;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Token;
-import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
+import org.jspecify.annotations.Nullable;
 
+/// Splits the source into tokens. The source is read as ASCII bytes,
+/// and tokens only refer to their bytes until their text is needed.
+///
+/// [#tokenize()] packs all tokens into a [TokenBuffer] without creating an object per token,
+/// [#nextToken(TokenBuffer)] adds them one by one to a ring, and [#nextToken()] creates them one by one.
 public class Lexer {
-    private final String source;
+    // the vectorized fast path is only taken if the incubator module was added, e.g. by the launcher with VECTOR_API=on
+    private static final boolean SIMD = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    private static final int LONG_BLANKS = 16;
+    private static final byte[][] KEYWORDS = new byte[Keyword.KeywordType.values().length][];
+
+    static {
+        for (Keyword.KeywordType type : Keyword.KeywordType.values()) {
+            KEYWORDS[type.ordinal()] = type.keyword().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final MemorySegment source;
+    private final int length;
+    private final SymbolTable symbols = new SymbolTable();
+    private final LineTable lines = new LineTable();
     private int pos;
-    private int lineStart;
-    private int line;
+    // the last lexed token
+    private Kind kind = Kind.ERROR;
+    private int type;
+    private int start;
+    private int tokenLength;
 
-    private Lexer(String source) {
+    private Lexer(MemorySegment source) {
         this.source = source;
+        this.length = (int) source.byteSize();
     }
 
     public static Lexer forString(String source) {
-        return new Lexer(source);
+        return forBytes(source.getBytes(StandardCharsets.UTF_8));
     }
 
-    public Optional<Token> nextToken() {
-        ErrorToken error = skipWhitespace();
-        if (error != null) {
-            return Optional.of(error);
+    public static Lexer forBytes(byte[] source) {
+        return new Lexer(MemorySegment.ofArray(source));
+    }
+
+    /// Maps the file into memory instead of reading it,
+    /// the mapping is released once neither the lexer nor any of its tokens are reachable anymore.
+    public static Lexer forFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large");
+            }
+            return new Lexer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size, Arena.ofAuto()));
         }
-        if (this.pos >= this.source.length()) {
+    }
+
+    /// {@return the symbols of the identifiers lexed so far}
+    public SymbolTable symbols() {
+        return this.symbols;
+    }
+
+    /// {@return the line starts of the source lexed so far, to resolve spans}
+    public LineTable lines() {
+        return this.lines;
+    }
+
+    public Optional<Token> nextToken() {
+        if (!lex()) {
             return Optional.empty();
         }
-        Token t = switch (peek()) {
+        Lexeme lexeme = this.kind == Kind.IDENTIFIER
+            ? this.symbols.lexeme(this.type)
+            : new Lexeme(this.source, this.start, this.tokenLength);
+        return Optional.of(TokenBuffer.create(this.kind, this.type, lexeme,
+            Span.of(this.start, this.start + this.tokenLength)));
+    }
+
+    /// Lexes all remaining tokens into a packed buffer.
+    public TokenBuffer tokenize() {
+        TokenBuffer tokens = TokenBuffer.all(this.source, this.symbols, this.lines);
+        while (nextToken(tokens)) {
+            // lex everything
+        }
+        return tokens;
+    }
+
+    /// {@return an empty buffer keeping the last `capacity` tokens, a power of two, for [#nextToken(TokenBuffer)]}
+    public TokenBuffer ring(int capacity) {
+        return TokenBuffer.ring(this.source, this.symbols, this.lines, capacity);
+    }
+
+    /// Lexes the next token into the buffer.
+    /// {@return whether there was another token}
+    public boolean nextToken(TokenBuffer tokens) {
+        if (!lex()) {
+            return false;
+        }
+        tokens.add(this.kind, this.type, this.start, this.tokenLength);
+        return true;
+    }
+
+    /// Lexes the next token into [#kind], [#type], [#start] and [#tokenLength].
+    /// {@return whether there was another token}
+    private boolean lex() {
+        if (skipWhitespace()) {
+            return true;
+        }
+        if (this.pos >= this.length) {
+            return false;
+        }
+        switch (peek()) {
             // separators
             case '(' -> separator(SeparatorType.PAREN_OPEN);
             case ')' -> separator(SeparatorType.PAREN_CLOSE);
@@ -59,9 +149,9 @@ public class Lexer {
             case '>' -> singleOrAssignOrShiftOrShiftAssign(
                 OperatorType.GREATER, OperatorType.GREATER_EQUAL,
                 OperatorType.SHIFT_RIGHT, OperatorType.ASSIGN_SHIFT_RIGHT);
-            case '?' -> new Operator(OperatorType.TERNARY_CONDITION, buildSpan(1));
-            case ':' -> new Operator(OperatorType.TERNARY_COLON, buildSpan(1));
-            case '~' -> new Operator(OperatorType.BITWISE_NOT, buildSpan(1));
+            case '?' -> operator(OperatorType.TERNARY_CONDITION, 1);
+            case ':' -> operator(OperatorType.TERNARY_COLON, 1);
+            case '~' -> operator(OperatorType.BITWISE_NOT, 1);
 
             // arithmetic
             case '-' -> singleOrAssign(OperatorType.MINUS, OperatorType.ASSIGN_MINUS);
@@ -73,35 +163,36 @@ public class Lexer {
             default -> {
                 if (isIdentifierChar(peek())) {
                     if (isNumeric(peek())) {
-                        yield lexNumber();
+                        lexNumber();
+                    } else {
+                        lexIdentifierOrKeyword();
                     }
-                    yield lexIdentifierOrKeyword();
+                } else {
+                    token(Kind.ERROR, 0, 1);
                 }
-                yield new ErrorToken(String.valueOf(peek()), buildSpan(1));
             }
-        };
-
-        return Optional.of(t);
+        }
+        return true;
     }
 
-    private @Nullable ErrorToken skipWhitespace() {
-        enum CommentType {
-            SINGLE_LINE,
-            MULTI_LINE
-        }
+    /// {@return whether an unterminated comment was lexed as error token}
+    private boolean skipWhitespace() {
         CommentType currentCommentType = null;
         int multiLineCommentDepth = 0;
         int commentStart = -1;
         while (hasMore(0)) {
             switch (peek()) {
-                case ' ', '\t' -> this.pos++;
+                case ' ', '\t' -> {
+                    this.pos++;
+                    skipRun(currentCommentType);
+                }
                 case '\n', '\r' -> {
                     this.pos++;
-                    this.lineStart = this.pos;
-                    this.line++;
+                    this.lines.add(this.pos);
                     if (currentCommentType == CommentType.SINGLE_LINE) {
                         currentCommentType = null;
                     }
+                    skipRun(currentCommentType);
                 }
                 case '/' -> {
                     if (currentCommentType == CommentType.SINGLE_LINE) {
@@ -118,10 +209,11 @@ public class Lexer {
                             this.pos++;
                             continue;
                         } else {
-                            return null;
+                            return false;
                         }
                         commentStart = this.pos;
                         this.pos += 2;
+                        skipRun(currentCommentType);
                         continue;
                     }
                     // are we in a multi line comment of any depth?
@@ -129,7 +221,7 @@ public class Lexer {
                         this.pos++;
                         continue;
                     }
-                    return null;
+                    return false;
                 }
                 default -> {
                     if (currentCommentType == CommentType.MULTI_LINE) {
@@ -140,42 +232,78 @@ public class Lexer {
                                 multiLineCommentDepth == 0 ? null : CommentType.MULTI_LINE;
                         } else {
                             this.pos++;
+                            skipRun(currentCommentType);
                         }
                         continue;
                     } else if (currentCommentType == CommentType.SINGLE_LINE) {
                         this.pos++;
+                        skipRun(currentCommentType);
                         continue;
                     }
-                    return null;
+                    return false;
                 }
             }
         }
         if (!hasMore(0) && currentCommentType == CommentType.MULTI_LINE) {
-            return new ErrorToken(this.source.substring(commentStart), buildSpan(0));
+            this.kind = Kind.ERROR;
+            this.type = 0;
+            this.start = commentStart;
+            this.tokenLength = this.length - commentStart;
+            return true;
+        }
+        return false;
+    }
+
+    private enum CommentType {
+        SINGLE_LINE,
+        MULTI_LINE
+    }
+
+    /// Skips ahead in a run of bytes that the state in [#skipWhitespace()] would only step over.
+    private void skipRun(@Nullable CommentType commentType) {
+        if (!SIMD) {
+            return;
+        }
+        if (commentType == null) {
+            // blanks between tokens and usual indentation are too short to be worth a vector
+            if (hasMore(LONG_BLANKS) && isBlank(peek()) && isBlank(peek(LONG_BLANKS))) {
+                this.pos = SimdScanner.skipBlanks(this.source, this.pos, this.length, this.lines);
+            }
+        } else if (commentType == CommentType.SINGLE_LINE) {
+            this.pos = SimdScanner.skipLine(this.source, this.pos, this.length);
+        } else {
+            this.pos = SimdScanner.skipBlockComment(this.source, this.pos, this.length, this.lines);
         }
-        return null;
     }
 
-    private Separator separator(SeparatorType parenOpen) {
-        return new Separator(parenOpen, buildSpan(1));
+    private void separator(SeparatorType type) {
+        token(Kind.SEPARATOR, type.ordinal(), 1);
+    }
+
+    private void operator(OperatorType type, int length) {
+        token(Kind.OPERATOR, type.ordinal(), length);
     }
 
-    private Token lexIdentifierOrKeyword() {
+    private void lexIdentifierOrKeyword() {
+        // the same hash as Lexeme#hashCode, computed while scanning anyway
+        int hash = 31 + peek();
         int off = 1;
         while (hasMore(off) && isIdentifierChar(peek(off))) {
+            hash = 31 * hash + peek(off);
             off++;
         }
-        String id = this.source.substring(this.pos, this.pos + off);
+        Lexeme id = lexeme(off);
         // This is a naive solution. Using a better data structure (hashmap, trie) likely performs better.
         for (Keyword.KeywordType value : Keyword.KeywordType.values()) {
-            if (value.keyword().equals(id)) {
-                return new Keyword(value, buildSpan(off));
+            if (id.contentEquals(KEYWORDS[value.ordinal()])) {
+                token(Kind.KEYWORD, value.ordinal(), off);
+                return;
             }
         }
-        return new Identifier(id, buildSpan(off));
+        token(Kind.IDENTIFIER, this.symbols.intern(id, hash), off);
     }
 
-    private Token lexNumber() {
+    private void lexNumber() {
         if (isHexPrefix()) {
             int off = 2;
             while (hasMore(off) && isHex(peek(off))) {
@@ -183,11 +311,11 @@ public class Lexer {
             }
             if (off == 2) {
                 // 0x without any further hex digits
-                return new ErrorToken(this.source.substring(this.pos, this.pos + off),
-                    buildSpan(2));
+                token(Kind.ERROR, 0, 2);
+                return;
             }
-            return new NumberLiteral(this.source.substring(this.pos, this.pos + off), 16,
-                buildSpan(off));
+            token(Kind.NUMBER, 16, off);
+            return;
         }
         int off = 1;
         while (hasMore(off) && isNumeric(peek(off))) {
@@ -195,10 +323,10 @@ public class Lexer {
         }
         if (peek() == '0' && off > 1) {
             // leading zero is not allowed
-            return new ErrorToken(this.source.substring(this.pos, this.pos + off), buildSpan(off));
+            token(Kind.ERROR, 0, off);
+            return;
         }
-        return new NumberLiteral(this.source.substring(this.pos, this.pos + off), 10,
-            buildSpan(off));
+        token(Kind.NUMBER, 10, off);
     }
 
     private boolean isHexPrefix() {
@@ -212,6 +340,10 @@ public class Lexer {
             || c >= '0' && c <= '9';
     }
 
+    private boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
     private boolean isNumeric(char c) {
         return c >= '0' && c <= '9';
     }
@@ -220,55 +352,59 @@ public class Lexer {
         return isNumeric(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
     }
 
-    private Token singleOrAssign(OperatorType single, OperatorType assign) {
+    private void singleOrAssign(OperatorType single, OperatorType assign) {
         if (hasMore(1) && peek(1) == '=') {
-            return new Operator(assign, buildSpan(2));
+            operator(assign, 2);
+        } else {
+            operator(single, 1);
         }
-        return new Operator(single, buildSpan(1));
     }
 
-    private Token singleOrAssignOrLogical(OperatorType single, OperatorType assign,
-                                          OperatorType logical) {
+    private void singleOrAssignOrLogical(OperatorType single, OperatorType assign,
+                                         OperatorType logical) {
         if (hasMore(1) && peek(1) == single.toString().charAt(0)) {
-            return new Operator(logical, buildSpan(2));
+            operator(logical, 2);
         } else {
-            return singleOrAssign(single, assign);
+            singleOrAssign(single, assign);
         }
     }
 
-    private Token singleOrAssignOrShiftOrShiftAssign(OperatorType single, OperatorType assign,
-                                                     OperatorType shift,
-                                                     OperatorType shiftAssign) {
+    private void singleOrAssignOrShiftOrShiftAssign(OperatorType single, OperatorType assign,
+                                                    OperatorType shift,
+                                                    OperatorType shiftAssign) {
         if (hasMore(1) && peek(1) == single.toString().charAt(0)) {
             if (hasMore(2) && peek(2) == '=') {
-                return new Operator(shiftAssign, buildSpan(3));
+                operator(shiftAssign, 3);
             } else {
-                return new Operator(shift, buildSpan(2));
+                operator(shift, 2);
             }
         } else {
-            return singleOrAssign(single, assign);
+            singleOrAssign(single, assign);
         }
     }
 
-    private Span buildSpan(int proceed) {
-        int start = this.pos;
-        this.pos += proceed;
-        Position.SimplePosition s = new Position.SimplePosition(this.line, start - this.lineStart);
-        Position.SimplePosition e =
-            new Position.SimplePosition(this.line, start - this.lineStart + proceed);
-        return new Span.SimpleSpan(s, e);
+    private void token(Kind kind, int type, int length) {
+        this.kind = kind;
+        this.type = type;
+        this.start = this.pos;
+        this.tokenLength = length;
+        this.pos += length;
+    }
+
+    private Lexeme lexeme(int length) {
+        return new Lexeme(this.source, this.pos, length);
     }
 
     private char peek() {
-        return this.source.charAt(this.pos);
+        return peek(0);
     }
 
     private boolean hasMore(int offset) {
-        return this.pos + offset < this.source.length();
+        return this.pos + offset < this.length;
     }
 
     private char peek(int offset) {
-        return this.source.charAt(this.pos + offset);
+        return (char) (this.source.get(ValueLayout.JAVA_BYTE, this.pos + offset) & 0xFF);
     }
 
 }
@@ -0,0 +1,89 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import edu.kit.kastel.vads.compiler.LineTable;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/// Skips runs of whitespace and comment bytes a whole vector at a time,
+/// 32 or 64 bytes depending on the platform.
+///
+/// Every method stops at the first byte the [Lexer]'s state machine has to look at,
+/// or where fewer bytes than a vector remain, and leaves the rest to it.
+/// Line breaks that are skipped are added to the line table on the way.
+/// Must only be used if `jdk.incubator.vector` is resolved, see [Lexer].
+final class SimdScanner {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int WIDTH = SPECIES.length();
+
+    private SimdScanner() {
+        throw new UnsupportedOperationException();
+    }
+
+    /// {@return the offset of the first byte from `pos` on that is no space, tab or line break}
+    static int skipBlanks(MemorySegment source, int pos, int end, LineTable lines) {
+        while (pos + WIDTH <= end) {
+            ByteVector bytes = load(source, pos);
+            VectorMask<Byte> breaks = lineBreaks(bytes);
+            VectorMask<Byte> blanks = breaks.or(bytes.eq((byte) ' ')).or(bytes.eq((byte) '\t'));
+            int stop = blanks.not().firstTrue();
+            addLines(lines, pos, breaks.toLong(), stop);
+            pos += stop;
+            if (stop < WIDTH) {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    /// {@return the offset of the first line break from `pos` on}
+    static int skipLine(MemorySegment source, int pos, int end) {
+        while (pos + WIDTH <= end) {
+            int stop = lineBreaks(load(source, pos)).firstTrue();
+            pos += stop;
+            if (stop < WIDTH) {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    /// {@return the offset of the first `/*` or `*/` from `pos` on}
+    static int skipBlockComment(MemorySegment source, int pos, int end, LineTable lines) {
+        // the pair is matched by comparing each byte and its successor, so a lone `*` does not stop the scan
+        while (pos + WIDTH < end) {
+            ByteVector bytes = load(source, pos);
+            ByteVector next = load(source, pos + 1);
+            VectorMask<Byte> stars = bytes.eq((byte) '*');
+            VectorMask<Byte> slashes = bytes.eq((byte) '/');
+            int stop = stars.and(next.eq((byte) '/')).or(slashes.and(next.eq((byte) '*'))).firstTrue();
+            addLines(lines, pos, lineBreaks(bytes).toLong(), stop);
+            pos += stop;
+            if (stop < WIDTH) {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static ByteVector load(MemorySegment source, int pos) {
+        return ByteVector.fromMemorySegment(SPECIES, source, pos, ByteOrder.nativeOrder());
+    }
+
+    private static VectorMask<Byte> lineBreaks(ByteVector bytes) {
+        return bytes.eq((byte) '\n').or(bytes.eq((byte) '\r'));
+    }
+
+    /// Adds the line starting after each of the breaks before lane `stop`.
+    private static void addLines(LineTable lines, int pos, long breaks, int stop) {
+        if (stop < Long.SIZE) {
+            breaks &= (1L << stop) - 1;
+        }
+        while (breaks != 0) {
+            lines.add(pos + Long.numberOfTrailingZeros(breaks) + 1);
+            breaks &= breaks - 1;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import edu.kit.kastel.vads.compiler.lexer.tokens.Lexeme;
+import java.util.Arrays;
+
+/// Interns the identifiers of one compilation into dense symbols `0, 1, 2, ...`,
+/// so later phases can key arrays by them instead of hashing strings.
+///
+/// Every symbol keeps the lexeme of its first occurrence,
+/// so the text of an identifier is decoded at most once, no matter how often it occurs.
+public final class SymbolTable {
+    private Lexeme[] lexemes = new Lexeme[64];
+    private int[] hashes = new int[64];
+    /// Open addressing, a slot holds the symbol plus one, zero marks an empty slot.
+    private int[] slots = new int[128];
+    private int size;
+
+    /// {@return the symbol of the given identifier, a new one if it was not seen before}
+    public int intern(Lexeme lexeme) {
+        return intern(lexeme, lexeme.hashCode());
+    }
+
+    /// Same as [#intern(Lexeme)], for callers that already know the [Lexeme#hashCode()].
+    public int intern(Lexeme lexeme, int hash) {
+        int mask = this.slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = this.slots[slot];
+            if (entry == 0) {
+                int symbol = this.size++;
+                if (symbol == this.lexemes.length) {
+                    this.lexemes = Arrays.copyOf(this.lexemes, symbol * 2);
+                    this.hashes = Arrays.copyOf(this.hashes, symbol * 2);
+                }
+                this.lexemes[symbol] = lexeme;
+                this.hashes[symbol] = hash;
+                this.slots[slot] = symbol + 1;
+                if (this.size * 2 > this.slots.length) {
+                    rehash();
+                }
+                return symbol;
+            }
+            if (this.hashes[entry - 1] == hash && this.lexemes[entry - 1].equals(lexeme)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /// {@return the lexeme of the first occurrence of the symbol}
+    public Lexeme lexeme(int symbol) {
+        return this.lexemes[symbol];
+    }
+
+    /// {@return the number of distinct identifiers, all symbols are smaller}
+    public int size() {
+        return this.size;
+    }
+
+    private void rehash() {
+        this.slots = new int[this.slots.length * 2];
+        int mask = this.slots.length - 1;
+        for (int symbol = 0; symbol < this.size; symbol++) {
+            int slot = this.hashes[symbol] & mask;
+            while (this.slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.slots[slot] = symbol + 1;
+        }
+    }
+}
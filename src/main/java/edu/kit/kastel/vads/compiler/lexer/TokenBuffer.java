@@ -0,0 +1,185 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import edu.kit.kastel.vads.compiler.LineTable;
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.lexer.tokens.ErrorToken;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Identifier;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword.KeywordType;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Lexeme;
+import edu.kit.kastel.vads.compiler.lexer.tokens.NumberLiteral;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Operator;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Separator;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Separator.SeparatorType;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Token;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+/// The tokens of a source, packed into parallel arrays instead of one object per token.
+///
+/// Every token has a [Kind], a type, and its start offset and length in bytes.
+/// The type is the ordinal of the [KeywordType], [OperatorType] or [SeparatorType],
+/// the symbol of an identifier, or the base of a number literal.
+/// [Token] objects are only created on request, e.g. for the AST or error messages.
+///
+/// A buffer either keeps all tokens of a source, or only the most recent ones in a ring.
+/// Tokens are numbered by their position in the source in both cases,
+/// a ring of capacity `n` only keeps tokens `size() - n` to `size() - 1` accessible.
+public final class TokenBuffer {
+    public enum Kind {
+        KEYWORD,
+        OPERATOR,
+        SEPARATOR,
+        IDENTIFIER,
+        NUMBER,
+        ERROR,
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final KeywordType[] KEYWORD_TYPES = KeywordType.values();
+    private static final OperatorType[] OPERATOR_TYPES = OperatorType.values();
+    private static final SeparatorType[] SEPARATOR_TYPES = SeparatorType.values();
+
+    private final MemorySegment source;
+    private final SymbolTable symbols;
+    private final LineTable lines;
+    private byte[] kinds;
+    private int[] types;
+    private int[] starts;
+    private int[] lengths;
+    // maps a token to its slot, all bits for a growing buffer and capacity - 1 for a ring
+    private final int mask;
+    private int size;
+
+    private TokenBuffer(MemorySegment source, SymbolTable symbols, LineTable lines, int capacity, int mask) {
+        this.source = source;
+        this.symbols = symbols;
+        this.lines = lines;
+        this.mask = mask;
+        this.kinds = new byte[capacity];
+        this.types = new int[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+    }
+
+    /// {@return a buffer growing to keep all tokens}
+    static TokenBuffer all(MemorySegment source, SymbolTable symbols, LineTable lines) {
+        // about one token per eight bytes of typical sources
+        int capacity = (int) Math.max(64, source.byteSize() / 8);
+        return new TokenBuffer(source, symbols, lines, capacity, -1);
+    }
+
+    /// {@return a buffer keeping only the last `capacity` tokens, which must be a power of two}
+    static TokenBuffer ring(MemorySegment source, SymbolTable symbols, LineTable lines, int capacity) {
+        assert Integer.bitCount(capacity) == 1 : "capacity must be a power of two";
+        return new TokenBuffer(source, symbols, lines, capacity, capacity - 1);
+    }
+
+    void add(Kind kind, int type, int start, int length) {
+        if (this.mask == -1 && this.size == this.kinds.length) {
+            int capacity = this.size + (this.size >> 1);
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.lengths = Arrays.copyOf(this.lengths, capacity);
+        }
+        int slot = this.size & this.mask;
+        this.kinds[slot] = (byte) kind.ordinal();
+        this.types[slot] = type;
+        this.starts[slot] = start;
+        this.lengths[slot] = length;
+        this.size++;
+    }
+
+    /// {@return the number of tokens added so far, including those a ring no longer keeps}
+    public int size() {
+        return this.size;
+    }
+
+    public SymbolTable symbols() {
+        return this.symbols;
+    }
+
+    public LineTable lines() {
+        return this.lines;
+    }
+
+    public Kind kind(int token) {
+        return KINDS[this.kinds[slot(token)]];
+    }
+
+    public boolean isKeyword(int token, KeywordType type) {
+        return this.kinds[slot(token)] == Kind.KEYWORD.ordinal() && this.types[slot(token)] == type.ordinal();
+    }
+
+    public boolean isOperator(int token, OperatorType type) {
+        return this.kinds[slot(token)] == Kind.OPERATOR.ordinal() && this.types[slot(token)] == type.ordinal();
+    }
+
+    public boolean isSeparator(int token, SeparatorType type) {
+        return this.kinds[slot(token)] == Kind.SEPARATOR.ordinal() && this.types[slot(token)] == type.ordinal();
+    }
+
+    public KeywordType keywordType(int token) {
+        return KEYWORD_TYPES[this.types[slot(token)]];
+    }
+
+    public OperatorType operatorType(int token) {
+        return OPERATOR_TYPES[this.types[slot(token)]];
+    }
+
+    public SeparatorType separatorType(int token) {
+        return SEPARATOR_TYPES[this.types[slot(token)]];
+    }
+
+    /// {@return the symbol of an identifier}
+    public int symbol(int token) {
+        return this.types[slot(token)];
+    }
+
+    /// {@return the base of a number literal}
+    public int base(int token) {
+        return this.types[slot(token)];
+    }
+
+    public int start(int token) {
+        return this.starts[slot(token)];
+    }
+
+    public int length(int token) {
+        return this.lengths[slot(token)];
+    }
+
+    public Lexeme lexeme(int token) {
+        if (this.kinds[slot(token)] == Kind.IDENTIFIER.ordinal()) {
+            return this.symbols.lexeme(this.types[slot(token)]);
+        }
+        return new Lexeme(this.source, this.starts[slot(token)], this.lengths[slot(token)]);
+    }
+
+    public long span(int token) {
+        return Span.of(this.starts[slot(token)], this.starts[slot(token)] + this.lengths[slot(token)]);
+    }
+
+    /// {@return a new object for the token}
+    public Token token(int token) {
+        return create(kind(token), this.types[slot(token)], lexeme(token), span(token));
+    }
+
+    private int slot(int token) {
+        assert token < this.size && token >= this.size - this.kinds.length : "token " + token + " is not kept";
+        return token & this.mask;
+    }
+
+    static Token create(Kind kind, int type, Lexeme lexeme, long span) {
+        return switch (kind) {
+            case KEYWORD -> new Keyword(KEYWORD_TYPES[type], span);
+            case OPERATOR -> new Operator(OPERATOR_TYPES[type], span);
+            case SEPARATOR -> new Separator(SEPARATOR_TYPES[type], span);
+            case IDENTIFIER -> new Identifier(lexeme, type, span);
+            case NUMBER -> new NumberLiteral(lexeme, type, span);
+            case ERROR -> new ErrorToken(lexeme, span);
+        };
+    }
+}
@@ -1,8 +1,10 @@
 package edu.kit.kastel.vads.compiler.lexer.tokens;
 
-import edu.kit.kastel.vads.compiler.Span;
+public record ErrorToken(Lexeme lexeme, long span) implements Token {
+    public String value() {
+        return lexeme().toString();
+    }
 
-public record ErrorToken(String value, Span span) implements Token {
     @Override
     public String asString() {
         return value();
@@ -1,8 +1,12 @@
 package edu.kit.kastel.vads.compiler.lexer.tokens;
 
-import edu.kit.kastel.vads.compiler.Span;
+/// An identifier, interned into a `symbol` that is unique within its compilation.
+/// The lexeme is the one of the symbol's first occurrence, shared by all its occurrences.
+public record Identifier(Lexeme lexeme, int symbol, long span) implements Token {
+    public String value() {
+        return lexeme().toString();
+    }
 
-public record Identifier(String value, Span span) implements Token {
     @Override
     public String asString() {
         return value();
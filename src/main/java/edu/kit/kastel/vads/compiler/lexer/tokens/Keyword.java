@@ -1,8 +1,6 @@
 package edu.kit.kastel.vads.compiler.lexer.tokens;
 
-import edu.kit.kastel.vads.compiler.Span;
-
-public record Keyword(KeywordType type, Span span) implements Token {
+public record Keyword(KeywordType type, long span) implements Token {
     @Override
     public boolean isKeyword(KeywordType keywordType) {
         return type() == keywordType;
@@ -0,0 +1,85 @@
+package edu.kit.kastel.vads.compiler.lexer.tokens;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import org.jspecify.annotations.Nullable;
+
+/// The bytes of a token in the source, referred to by their offset.
+/// Its text is only decoded into a [String] when requested, and then kept.
+public final class Lexeme {
+    private final MemorySegment source;
+    private final int offset;
+    private final int length;
+    private @Nullable String text;
+
+    public Lexeme(MemorySegment source, int offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /// {@return the byte offset of the lexeme in the source}
+    public int offset() {
+        return this.offset;
+    }
+
+    /// {@return the number of bytes of the lexeme}
+    public int length() {
+        return this.length;
+    }
+
+    public byte byteAt(int index) {
+        return this.source.get(ValueLayout.JAVA_BYTE, this.offset + index);
+    }
+
+    /// {@return whether the lexeme consists of exactly the given ASCII bytes}
+    public boolean contentEquals(byte[] bytes) {
+        if (bytes.length != this.length) {
+            return false;
+        }
+        for (int i = 0; i < this.length; i++) {
+            if (byteAt(i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Not MemorySegment.mismatch: in JDK 21 it returns -1 without looking at the offsets
+    // whenever both ranges lie in the same segment (AbstractMemorySegmentImpl.mismatch checks
+    // `dstImpl == srcImpl` first), so lexemes of one source like "v10" and "v54" compared equal
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Lexeme other) || other.length != this.length) {
+            return false;
+        }
+        for (int i = 0; i < this.length; i++) {
+            if (byteAt(i) != other.byteAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < this.length; i++) {
+            hash = 31 * hash + byteAt(i);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        String text = this.text;
+        if (text == null) {
+            byte[] bytes = this.source.asSlice(this.offset, this.length).toArray(ValueLayout.JAVA_BYTE);
+            // valid programs are pure ASCII, other bytes only end up in error tokens
+            text = new String(bytes, StandardCharsets.ISO_8859_1);
+            this.text = text;
+        }
+        return text;
+    }
+}
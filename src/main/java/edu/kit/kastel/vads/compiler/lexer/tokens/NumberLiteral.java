@@ -1,8 +1,10 @@
 package edu.kit.kastel.vads.compiler.lexer.tokens;
 
-import edu.kit.kastel.vads.compiler.Span;
+public record NumberLiteral(Lexeme lexeme, int base, long span) implements Token {
+    public String value() {
+        return lexeme().toString();
+    }
 
-public record NumberLiteral(String value, int base, Span span) implements Token {
     @Override
     public String asString() {
         return value();
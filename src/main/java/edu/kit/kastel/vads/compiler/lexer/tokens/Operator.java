@@ -1,8 +1,6 @@
 package edu.kit.kastel.vads.compiler.lexer.tokens;
 
-import edu.kit.kastel.vads.compiler.Span;
-
-public record Operator(OperatorType type, Span span) implements Token {
+public record Operator(OperatorType type, long span) implements Token {
 
     @Override
     public boolean isOperator(OperatorType operatorType) {
@@ -1,8 +1,6 @@
 package edu.kit.kastel.vads.compiler.lexer.tokens;
 
-import edu.kit.kastel.vads.compiler.Span;
-
-public record Separator(SeparatorType type, Span span) implements Token {
+public record Separator(SeparatorType type, long span) implements Token {
 
     @Override
     public boolean isSeparator(SeparatorType separatorType) {
@@ -1,11 +1,9 @@
 package edu.kit.kastel.vads.compiler.lexer.tokens;
 
-import edu.kit.kastel.vads.compiler.Span;
-
 public sealed interface Token permits ErrorToken, Identifier, Keyword, NumberLiteral, Operator,
     Separator {
 
-    Span span();
+    long span();
 
     default boolean isKeyword(Keyword.KeywordType keywordType) {
         return false;
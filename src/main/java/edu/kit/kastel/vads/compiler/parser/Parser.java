@@ -1,14 +1,10 @@
 package edu.kit.kastel.vads.compiler.parser;
 
 import edu.kit.kastel.vads.compiler.Span;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Identifier;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword;
-import edu.kit.kastel.vads.compiler.lexer.tokens.NumberLiteral;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Operator;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Operator.OperatorType;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Separator;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Separator.SeparatorType;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Token;
 import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
 import edu.kit.kastel.vads.compiler.parser.ast.ParameterTree;
@@ -35,9 +31,10 @@ import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ForTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
-import edu.kit.kastel.vads.compiler.parser.symbol.Name;
 import edu.kit.kastel.vads.compiler.parser.type.BasicType;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import org.jspecify.annotations.Nullable;
 
@@ -59,60 +56,55 @@ public class Parser {
 
     private FunctionTree parseFunction() {
         TypeTree returnType = parseType();
-        Identifier identifier = this.tokenSource.expectIdentifier();
+        NameTree name = name(this.tokenSource.expectIdentifier());
         this.tokenSource.expectSeparator(SeparatorType.PAREN_OPEN);
         var params = parseFunctionParameters();
         this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
         BlockTree body = parseBlock();
         return new FunctionTree(
             returnType,
-            name(identifier),
+            name,
             body,
             params
         );
     }
 
     private BlockTree parseBlock() {
-        Separator bodyOpen = this.tokenSource.expectSeparator(SeparatorType.BRACE_OPEN);
+        long bodyOpen = this.tokenSource.span(this.tokenSource.expectSeparator(SeparatorType.BRACE_OPEN));
         List<StatementTree> statements = new ArrayList<>();
-        while (!(this.tokenSource.peek() instanceof Separator sep &&
-            sep.type() == SeparatorType.BRACE_CLOSE)) {
+        while (!this.tokenSource.isSeparator(SeparatorType.BRACE_CLOSE)) {
             statements.add(parseStatement());
         }
-        Separator bodyClose = this.tokenSource.expectSeparator(SeparatorType.BRACE_CLOSE);
-        return new BlockTree(statements, bodyOpen.span().merge(bodyClose.span()));
+        long bodyClose = this.tokenSource.span(this.tokenSource.expectSeparator(SeparatorType.BRACE_CLOSE));
+        return new BlockTree(statements, Span.merge(bodyOpen, bodyClose));
     }
 
     private TypeTree parseType() {
-        Token nextToken = this.tokenSource.peek();
-        if (nextToken.isKeyword(Keyword.KeywordType.INT)) {
-            this.tokenSource.consume();
-            return new TypeTree(BasicType.INT, nextToken.span());
-        } else if (nextToken.isKeyword(Keyword.KeywordType.BOOL)) {
-            this.tokenSource.consume();
-            return new TypeTree(BasicType.BOOL, nextToken.span());
+        if (this.tokenSource.isKeyword(Keyword.KeywordType.INT)) {
+            return new TypeTree(BasicType.INT, this.tokenSource.span(this.tokenSource.consume()));
+        } else if (this.tokenSource.isKeyword(Keyword.KeywordType.BOOL)) {
+            return new TypeTree(BasicType.BOOL, this.tokenSource.span(this.tokenSource.consume()));
         } else {
-            throw new ParseException("expected type but got " + nextToken);
+            throw new ParseException("expected type but got " + this.tokenSource.describe());
         }
     }
 
     private StatementTree parseDeclaration() {
         TypeTree type = parseType();
-        Identifier ident = this.tokenSource.expectIdentifier();
+        NameTree name = name(this.tokenSource.expectIdentifier());
         ExpressionTree expr = null;
-        if (this.tokenSource.peek().isOperator(OperatorType.ASSIGN)) {
+        if (this.tokenSource.isOperator(OperatorType.ASSIGN)) {
             this.tokenSource.expectOperator(OperatorType.ASSIGN);
             expr = parseExpression();
         }
-        return new DeclarationTree(type, name(ident), expr);
+        return new DeclarationTree(type, name, expr);
     }
 
     private StatementTree parseStatement() {
         StatementTree statement;
-        Token nextToken = this.tokenSource.peek();
-        if (isControl(nextToken)) {
+        if (isControl()) {
             statement = parseControl();
-        } else if (nextToken.isSeparator(SeparatorType.BRACE_OPEN)) {
+        } else if (this.tokenSource.isSeparator(SeparatorType.BRACE_OPEN)) {
             statement = parseBlock();
         } else {
             statement = parseSimple();
@@ -122,8 +114,7 @@ public class Parser {
     }
 
     private StatementTree parseSimple() {
-        Token nextToken = this.tokenSource.peek();
-        if (isType(nextToken)) {
+        if (isType()) {
             return parseDeclaration();
         } else {
             LValueTree lValue = parseLValue();
@@ -134,9 +125,8 @@ public class Parser {
     }
 
     private @Nullable StatementTree parseSimpleOptional() {
-        Token nextToken = this.tokenSource.peek();
-        if (nextToken.isSeparator(SeparatorType.SEMICOLON) // via for loop
-            || nextToken.isSeparator(SeparatorType.PAREN_CLOSE) // via for loop
+        if (this.tokenSource.isSeparator(SeparatorType.SEMICOLON) // via for loop
+            || this.tokenSource.isSeparator(SeparatorType.PAREN_CLOSE) // via for loop
         ) {
             return null;
         } else {
@@ -145,62 +135,60 @@ public class Parser {
     }
 
     private Operator parseAssignmentOperator() {
-        if (this.tokenSource.peek() instanceof Operator op) {
-            return switch (op.type()) {
-                case ASSIGN, ASSIGN_DIV, ASSIGN_MINUS, ASSIGN_MOD, ASSIGN_MUL, ASSIGN_PLUS, ASSIGN_AND, ASSIGN_OR, ASSIGN_XOR, ASSIGN_SHIFT_LEFT, ASSIGN_SHIFT_RIGHT -> {
-                    this.tokenSource.consume();
-                    yield op;
-                }
-                default -> throw new ParseException("expected assignment but got " + op.type());
+        OperatorType type = this.tokenSource.peekOperator();
+        if (type != null) {
+            return switch (type) {
+                case ASSIGN, ASSIGN_DIV, ASSIGN_MINUS, ASSIGN_MOD, ASSIGN_MUL, ASSIGN_PLUS, ASSIGN_AND, ASSIGN_OR, ASSIGN_XOR, ASSIGN_SHIFT_LEFT, ASSIGN_SHIFT_RIGHT ->
+                    this.tokenSource.operator(this.tokenSource.consume());
+                default -> throw new ParseException("expected assignment but got " + type);
             };
         }
-        throw new ParseException("expected assignment but got " + this.tokenSource.peek());
+        throw new ParseException("expected assignment but got " + this.tokenSource.describe());
     }
 
     private LValueTree parseLValue() {
-        if (this.tokenSource.peek().isSeparator(SeparatorType.PAREN_OPEN)) {
+        if (this.tokenSource.isSeparator(SeparatorType.PAREN_OPEN)) {
             this.tokenSource.expectSeparator(SeparatorType.PAREN_OPEN);
             LValueTree inner = parseLValue();
             this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
             return inner;
         }
-        Identifier identifier = this.tokenSource.expectIdentifier();
+        int identifier = this.tokenSource.expectIdentifier();
         return new LValueIdentTree(name(identifier));
     }
 
     private ControlTree parseControl() {
         ControlTree control;
-        Token nextToken = this.tokenSource.peek();
-        if (nextToken.isKeyword(Keyword.KeywordType.IF)) {
+        if (this.tokenSource.isKeyword(Keyword.KeywordType.IF)) {
             control = parseIf();
-        } else if (nextToken.isKeyword(Keyword.KeywordType.WHILE)) {
+        } else if (this.tokenSource.isKeyword(Keyword.KeywordType.WHILE)) {
             control = parseWhile();
-        } else if (nextToken.isKeyword(Keyword.KeywordType.FOR)) {
+        } else if (this.tokenSource.isKeyword(Keyword.KeywordType.FOR)) {
             control = parseFor();
-        } else if (nextToken.isKeyword(Keyword.KeywordType.CONTINUE)) {
+        } else if (this.tokenSource.isKeyword(Keyword.KeywordType.CONTINUE)) {
             control = parseContinue();
             this.tokenSource.expectSeparator(SeparatorType.SEMICOLON);
-        } else if (nextToken.isKeyword(Keyword.KeywordType.BREAK)) {
+        } else if (this.tokenSource.isKeyword(Keyword.KeywordType.BREAK)) {
             control = parseBreak();
             this.tokenSource.expectSeparator(SeparatorType.SEMICOLON);
-        } else if (nextToken.isKeyword(Keyword.KeywordType.RETURN)) {
+        } else if (this.tokenSource.isKeyword(Keyword.KeywordType.RETURN)) {
             control = parseReturn();
             this.tokenSource.expectSeparator(SeparatorType.SEMICOLON);
         } else {
-            throw new ParseException("expected control statement but got " + nextToken);
+            throw new ParseException("expected control statement but got " + this.tokenSource.describe());
         }
 
         return control;
     }
 
     private IfTree parseIf() {
-        Keyword ifKeyword = this.tokenSource.expectKeyword(Keyword.KeywordType.IF);
+        Keyword ifKeyword = this.tokenSource.keyword(this.tokenSource.expectKeyword(Keyword.KeywordType.IF));
         this.tokenSource.expectSeparator(SeparatorType.PAREN_OPEN);
         ExpressionTree condition = parseExpression();
         this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
         StatementTree thenBlock = parseStatement();
         StatementTree elseBlock = null;
-        if (this.tokenSource.peek().isKeyword(Keyword.KeywordType.ELSE)) {
+        if (this.tokenSource.isKeyword(Keyword.KeywordType.ELSE)) {
             this.tokenSource.consume();
             elseBlock = parseStatement();
         }
@@ -208,7 +196,7 @@ public class Parser {
     }
 
     private ControlTree parseWhile() {
-        Keyword whileKeyword = this.tokenSource.expectKeyword(Keyword.KeywordType.WHILE);
+        Keyword whileKeyword = this.tokenSource.keyword(this.tokenSource.expectKeyword(Keyword.KeywordType.WHILE));
         this.tokenSource.expectSeparator(SeparatorType.PAREN_OPEN);
         ExpressionTree condition = parseExpression();
         this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
@@ -217,7 +205,7 @@ public class Parser {
     }
 
     private ControlTree parseFor() {
-        Keyword forKeyword = this.tokenSource.expectKeyword(Keyword.KeywordType.FOR);
+        Keyword forKeyword = this.tokenSource.keyword(this.tokenSource.expectKeyword(Keyword.KeywordType.FOR));
         this.tokenSource.expectSeparator(SeparatorType.PAREN_OPEN);
         StatementTree init = parseSimpleOptional();
         this.tokenSource.expectSeparator(SeparatorType.SEMICOLON);
@@ -230,84 +218,116 @@ public class Parser {
     }
 
     private ControlTree parseContinue() {
-        Keyword cont = this.tokenSource.expectKeyword(Keyword.KeywordType.CONTINUE);
-        return new ContinueTree(cont.span());
+        int cont = this.tokenSource.expectKeyword(Keyword.KeywordType.CONTINUE);
+        return new ContinueTree(this.tokenSource.span(cont));
     }
 
     private ControlTree parseBreak() {
-        Keyword brk = this.tokenSource.expectKeyword(Keyword.KeywordType.BREAK);
-        return new BreakTree(brk.span());
+        int brk = this.tokenSource.expectKeyword(Keyword.KeywordType.BREAK);
+        return new BreakTree(this.tokenSource.span(brk));
     }
 
     private ReturnTree parseReturn() {
-        Keyword ret = this.tokenSource.expectKeyword(Keyword.KeywordType.RETURN);
+        long ret = this.tokenSource.span(this.tokenSource.expectKeyword(Keyword.KeywordType.RETURN));
         ExpressionTree expression = parseExpression();
-        return new ReturnTree(expression, ret.span().start());
+        return new ReturnTree(expression, Span.start(ret));
     }
 
+    /// Parses via precedence climbing.
+    /// The operations waiting for a nested operand are kept on a stack instead of recursing,
+    /// so the nesting depth of expressions is only bounded by the heap.
     private ExpressionTree parseExpression() {
-        // Parse via precedence climbing
-        return parsePrecedence(0);
-    }
-
-    private ExpressionTree parsePrecedence(int precedence) {
-        ExpressionTree lhs;
-
-        if (this.tokenSource.peek() instanceof Operator operator
-            && getPrecedenceUnary(operator.type()) >= precedence) {
-            // Try to parse a unary operator
-            this.tokenSource.consume();
-            ExpressionTree operand = parsePrecedence(getPrecedenceUnary(operator.type()));
-            if (operator.type() == OperatorType.MINUS) {
-                lhs = new UnaryOperationTree(operand, new Operator(OperatorType.UNARY_MINUS, operator.span()));
-            } else {
-                lhs = new UnaryOperationTree(operand, operator);
-            }
-        } else {
-            // Otherwise, parse a factor
-            lhs = parseFactor();
-        }
-
-        // Try to parse binary operators or ternary operator
+        Deque<Pending> pending = new ArrayDeque<>();
+        int precedence = 0;
+        operand:
         while (true) {
-            Token nextToken = this.tokenSource.peek();
-            if (nextToken.isSeparator(SeparatorType.PAREN_OPEN)) {
-                // Handle function calls
-                this.tokenSource.consume();
-                if (!(lhs instanceof IdentExpressionTree identExpressionTree)) {
-                    throw new ParseException("expected identifier before function call, but got " + lhs);
+            // Try to parse a unary operator or parentheses, which need a nested operand first
+            OperatorType unary = this.tokenSource.peekOperator();
+            if (unary != null && getPrecedenceUnary(unary) >= precedence) {
+                Operator operator = this.tokenSource.operator(this.tokenSource.consume());
+                if (unary == OperatorType.MINUS) {
+                    operator = new Operator(OperatorType.UNARY_MINUS, operator.span());
                 }
+                pending.push(new PendingUnary(precedence, operator));
+                precedence = getPrecedenceUnary(unary);
+                continue;
+            }
+            if (this.tokenSource.isSeparator(SeparatorType.PAREN_OPEN)) {
+                this.tokenSource.consume();
+                pending.push(new PendingParentheses(precedence));
+                precedence = 0;
+                continue;
+            }
+            ExpressionTree lhs = parseFactor();
 
-                var args = parseFunctionArguments();
-
-                tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
-
-                return new FunctionCallTree(identExpressionTree.name(), args);
-            } else if (nextToken instanceof Operator(var type, _)) {
-                int nextPrecedence = getPrecedenceBinary(type);
-                if (nextPrecedence > precedence) {
+            // Try to parse binary operators or ternary operator
+            while (true) {
+                OperatorType type = this.tokenSource.peekOperator();
+                if (this.tokenSource.isSeparator(SeparatorType.PAREN_OPEN)) {
+                    // Handle function calls, which end the expression at this precedence
+                    this.tokenSource.consume();
+                    if (!(lhs instanceof IdentExpressionTree identExpressionTree)) {
+                        throw new ParseException("expected identifier before function call, but got " + lhs.getClass().getSimpleName() + " at " + this.tokenSource.lines().format(lhs.span()));
+                    }
+                    if (!this.tokenSource.isSeparator(SeparatorType.PAREN_CLOSE)) {
+                        pending.push(new PendingArgument(precedence, identExpressionTree.name(), new ArrayList<>()));
+                        precedence = 0;
+                        continue operand;
+                    }
+                    this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
+                    lhs = new FunctionCallTree(identExpressionTree.name(), new ArrayList<>());
+                } else if (type != null && getPrecedenceBinary(type) > precedence) {
                     this.tokenSource.consume();
-                    ExpressionTree rhs = parsePrecedence(nextPrecedence);
-                    lhs = new BinaryOperationTree(lhs, rhs, type);
-                } else if (nextToken.isOperator(OperatorType.TERNARY_CONDITION)) {
-                    if (precedence < getPrecedenceTernary(OperatorType.TERNARY_CONDITION)) {
-                        this.tokenSource.consume();
-                        ExpressionTree trueBranch = parsePrecedence(0);
-                        this.tokenSource.expectOperator(OperatorType.TERNARY_COLON);
-                        ExpressionTree falseBranch = parsePrecedence(0);
-                        lhs = new TernaryOperationTree(lhs, trueBranch, falseBranch);
-                    } else {
-                        break;
+                    pending.push(new PendingBinary(precedence, lhs, type));
+                    precedence = getPrecedenceBinary(type);
+                    continue operand;
+                } else if (type == OperatorType.TERNARY_CONDITION
+                    && precedence < getPrecedenceTernary(OperatorType.TERNARY_CONDITION)) {
+                    this.tokenSource.consume();
+                    pending.push(new PendingCondition(precedence, lhs));
+                    precedence = 0;
+                    continue operand;
+                }
+
+                // The expression at this precedence is complete, hand it to the waiting operation
+                while (true) {
+                    Pending operation = pending.poll();
+                    if (operation == null) {
+                        return lhs;
+                    }
+                    precedence = operation.precedence();
+                    switch (operation) {
+                        case PendingUnary unaryOperation ->
+                            lhs = new UnaryOperationTree(lhs, unaryOperation.operator());
+                        case PendingParentheses _ -> this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
+                        case PendingBinary binaryOperation ->
+                            lhs = new BinaryOperationTree(binaryOperation.lhs(), lhs, binaryOperation.operatorType());
+                        case PendingCondition condition -> {
+                            this.tokenSource.expectOperator(OperatorType.TERNARY_COLON);
+                            pending.push(new PendingTrueBranch(precedence, condition.condition(), lhs));
+                            precedence = 0;
+                            continue operand;
+                        }
+                        case PendingTrueBranch trueBranch ->
+                            lhs = new TernaryOperationTree(trueBranch.condition(), trueBranch.trueBranch(), lhs);
+                        case PendingArgument call -> {
+                            call.arguments().add(lhs);
+                            if (this.tokenSource.isSeparator(SeparatorType.COMMA)) {
+                                this.tokenSource.consume();
+                                pending.push(call);
+                                precedence = 0;
+                                continue operand;
+                            }
+                            this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
+                            // the call ends the expression at its precedence as well
+                            lhs = new FunctionCallTree(call.name(), call.arguments());
+                            continue;
+                        }
                     }
-                } else {
                     break;
                 }
-            } else {
-                break;
             }
         }
-
-        return lhs;
     }
 
     private int getPrecedenceTernary(OperatorType type) {
@@ -342,63 +362,32 @@ public class Parser {
     }
 
     private ExpressionTree parseFactor() {
-        return switch (this.tokenSource.peek()) {
-            case Separator(var type, _) when type == SeparatorType.PAREN_OPEN -> {
-                this.tokenSource.consume();
-                ExpressionTree expression = parseExpression();
-                this.tokenSource.expectSeparator(SeparatorType.PAREN_CLOSE);
-                yield expression;
-            }
-            case Operator operator when operator.type() == OperatorType.MINUS
-                || operator.type() == OperatorType.NOT
-                || operator.type() == OperatorType.BITWISE_NOT -> {
-                this.tokenSource.consume();
-                yield new UnaryOperationTree(parseFactor(), operator);
-            }
-            case Keyword(var type, _) when type == Keyword.KeywordType.TRUE -> {
-                Span span = this.tokenSource.consume().span();
-                yield new BooleanTree(true, span);
-            }
-            case Keyword(var type, _) when type == Keyword.KeywordType.FALSE -> {
-                Span span = this.tokenSource.consume().span();
-                yield new BooleanTree(false, span);
-            }
-            case Identifier ident -> {
-                this.tokenSource.consume();
-                yield new IdentExpressionTree(name(ident));
-            }
-            case NumberLiteral(String value, int base, Span span) -> {
-                this.tokenSource.consume();
-                yield new LiteralTree(value, base, span);
-            }
-            case Token t -> throw new ParseException("invalid factor " + t);
-        };
-    }
-
-    private List<ExpressionTree> parseFunctionArguments() {
-        List<ExpressionTree> args = new ArrayList<>();
-        if (!tokenSource.peek().isSeparator(SeparatorType.PAREN_CLOSE)) {
-            args.add(parseExpression());
-            while (tokenSource.peek().isSeparator(SeparatorType.COMMA)) {
-                tokenSource.consume();
-                args.add(parseExpression());
-            }
+        if (this.tokenSource.isKeyword(Keyword.KeywordType.TRUE)) {
+            return new BooleanTree(true, this.tokenSource.span(this.tokenSource.consume()));
+        } else if (this.tokenSource.isKeyword(Keyword.KeywordType.FALSE)) {
+            return new BooleanTree(false, this.tokenSource.span(this.tokenSource.consume()));
+        } else if (this.tokenSource.isIdentifier()) {
+            return new IdentExpressionTree(name(this.tokenSource.consume()));
+        } else if (this.tokenSource.isNumber()) {
+            int literal = this.tokenSource.consume();
+            return new LiteralTree(this.tokenSource.text(literal), this.tokenSource.base(literal),
+                this.tokenSource.span(literal));
         }
-        return args;
+        throw new ParseException("invalid factor " + this.tokenSource.describe());
     }
 
     private List<ParameterTree> parseFunctionParameters() {
         List<ParameterTree> params = new ArrayList<>();
-        if (tokenSource.peek().isSeparator(SeparatorType.PAREN_CLOSE)) {
+        if (tokenSource.isSeparator(SeparatorType.PAREN_CLOSE)) {
             // No parameters
             return params;
         }
 
         while (true) {
             TypeTree type = parseType();
-            Identifier ident = tokenSource.expectIdentifier();
+            int ident = tokenSource.expectIdentifier();
             params.add(new ParameterTree(type, name(ident)));
-            if (tokenSource.peek().isSeparator(SeparatorType.COMMA)) {
+            if (tokenSource.isSeparator(SeparatorType.COMMA)) {
                 tokenSource.consume();
             } else {
                 break;
@@ -407,20 +396,46 @@ public class Parser {
         return params;
     }
 
-    private static NameTree name(Identifier ident) {
-        return new NameTree(Name.forIdentifier(ident), ident.span());
+    private NameTree name(int ident) {
+        return new NameTree(this.tokenSource.name(ident), this.tokenSource.span(ident));
+    }
+
+    private boolean isType() {
+        return this.tokenSource.isKeyword(Keyword.KeywordType.INT)
+            || this.tokenSource.isKeyword(Keyword.KeywordType.BOOL);
+    }
+
+    private boolean isControl() {
+        return this.tokenSource.isKeyword(Keyword.KeywordType.IF)
+            || this.tokenSource.isKeyword(Keyword.KeywordType.WHILE)
+            || this.tokenSource.isKeyword(Keyword.KeywordType.FOR)
+            || this.tokenSource.isKeyword(Keyword.KeywordType.CONTINUE)
+            || this.tokenSource.isKeyword(Keyword.KeywordType.BREAK)
+            || this.tokenSource.isKeyword(Keyword.KeywordType.RETURN);
+    }
+
+    /// An operation waiting for the expression at its nested precedence, see [#parseExpression()].
+    private sealed interface Pending {
+        /// {@return the precedence to continue with once the operation is complete}
+        int precedence();
+    }
+
+    private record PendingUnary(int precedence, Operator operator) implements Pending {
+    }
+
+    private record PendingParentheses(int precedence) implements Pending {
+    }
+
+    private record PendingBinary(int precedence, ExpressionTree lhs, OperatorType operatorType) implements Pending {
+    }
+
+    private record PendingCondition(int precedence, ExpressionTree condition) implements Pending {
     }
 
-    private static boolean isType(Token token) {
-        return token.isKeyword(Keyword.KeywordType.INT) || token.isKeyword(Keyword.KeywordType.BOOL);
+    private record PendingTrueBranch(int precedence, ExpressionTree condition, ExpressionTree trueBranch)
+        implements Pending {
     }
 
-    private static boolean isControl(Token token) {
-        return token.isKeyword(Keyword.KeywordType.IF)
-            || token.isKeyword(Keyword.KeywordType.WHILE)
-            || token.isKeyword(Keyword.KeywordType.FOR)
-            || token.isKeyword(Keyword.KeywordType.CONTINUE)
-            || token.isKeyword(Keyword.KeywordType.BREAK)
-            || token.isKeyword(Keyword.KeywordType.RETURN);
+    private record PendingArgument(int precedence, NameTree name, List<ExpressionTree> arguments) implements Pending {
     }
 }
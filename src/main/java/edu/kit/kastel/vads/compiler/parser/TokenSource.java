@@ -1,85 +1,166 @@
 package edu.kit.kastel.vads.compiler.parser;
 
-import edu.kit.kastel.vads.compiler.lexer.tokens.Identifier;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword;
+import edu.kit.kastel.vads.compiler.LineTable;
 import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.TokenBuffer;
+import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Operator;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Operator.OperatorType;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Separator;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Separator.SeparatorType;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Token;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import org.jspecify.annotations.Nullable;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Stream;
-
+/// The tokens of a [Lexer], read from a [TokenBuffer].
+///
+/// Tokens are referred to by their index in the buffer.
+/// [Token] objects are only created by [#describe()] for error messages and by the accessors
+/// whose results end up in the AST.
+///
+/// A [streaming][#streaming(Lexer)] source lexes tokens only when they are looked at
+/// and keeps just the last few of them, so a consumed token must be accessed right away.
 public class TokenSource {
-    private final List<Token> tokens;
+    // the parser looks one token ahead and accesses tokens right after consuming them
+    private static final int STREAMING_CAPACITY = 16;
+
+    private final TokenBuffer tokens;
+    private final @Nullable Lexer lexer;
     private int idx;
 
+    /// Lexes all tokens upfront.
     public TokenSource(Lexer lexer) {
-        this.tokens = Stream.generate(lexer::nextToken)
-            .takeWhile(Optional::isPresent)
-            .map(Optional::orElseThrow)
-            .toList();
+        this.tokens = lexer.tokenize();
+        this.lexer = null;
+    }
+
+    private TokenSource(Lexer lexer, TokenBuffer ring) {
+        this.tokens = ring;
+        this.lexer = lexer;
     }
 
-    TokenSource(List<Token> tokens) {
-        this.tokens = List.copyOf(tokens);
+    /// {@return a source interleaving lexing with parsing, in constant memory}
+    public static TokenSource streaming(Lexer lexer) {
+        return new TokenSource(lexer, lexer.ring(STREAMING_CAPACITY));
     }
 
     public Token peek() {
         expectHasMore();
-        return this.tokens.get(this.idx);
+        return this.tokens.token(this.idx);
     }
 
-    public Keyword expectKeyword(Keyword.KeywordType type) {
+    /// {@return the next token and its position, for error messages}
+    public String describe() {
         Token token = peek();
-        if (!(token instanceof Keyword kw) || kw.type() != type) {
-            throw new ParseException("expected keyword '" + type + "' but got " + token);
+        return token.getClass().getSimpleName() + " '" + token.asString() + "' at "
+            + this.tokens.lines().format(token.span());
+    }
+
+    public @Nullable OperatorType peekOperator() {
+        expectHasMore();
+        return this.tokens.kind(this.idx) == TokenBuffer.Kind.OPERATOR
+            ? this.tokens.operatorType(this.idx)
+            : null;
+    }
+
+    public boolean isKeyword(Keyword.KeywordType type) {
+        expectHasMore();
+        return this.tokens.isKeyword(this.idx, type);
+    }
+
+    public boolean isSeparator(SeparatorType type) {
+        expectHasMore();
+        return this.tokens.isSeparator(this.idx, type);
+    }
+
+    public boolean isOperator(OperatorType type) {
+        expectHasMore();
+        return this.tokens.isOperator(this.idx, type);
+    }
+
+    public boolean isIdentifier() {
+        expectHasMore();
+        return this.tokens.kind(this.idx) == TokenBuffer.Kind.IDENTIFIER;
+    }
+
+    public boolean isNumber() {
+        expectHasMore();
+        return this.tokens.kind(this.idx) == TokenBuffer.Kind.NUMBER;
+    }
+
+    public int expectKeyword(Keyword.KeywordType type) {
+        if (!isKeyword(type)) {
+            throw new ParseException("expected keyword '" + type + "' but got " + describe());
         }
-        this.idx++;
-        return kw;
+        return this.idx++;
     }
 
-    public Separator expectSeparator(SeparatorType type) {
-        Token token = peek();
-        if (!(token instanceof Separator sep) || sep.type() != type) {
-            throw new ParseException("expected separator '" + type + "' but got " + token);
+    public int expectSeparator(SeparatorType type) {
+        if (!isSeparator(type)) {
+            throw new ParseException("expected separator '" + type + "' but got " + describe());
         }
-        this.idx++;
-        return sep;
+        return this.idx++;
     }
 
-    public Operator expectOperator(OperatorType type) {
-        Token token = peek();
-        if (!(token instanceof Operator op) || op.type() != type) {
-            throw new ParseException("expected operator '" + type + "' but got " + token);
+    public int expectOperator(OperatorType type) {
+        if (!isOperator(type)) {
+            throw new ParseException("expected operator '" + type + "' but got " + describe());
         }
-        this.idx++;
-        return op;
+        return this.idx++;
     }
-    public Identifier expectIdentifier() {
-        Token token = peek();
-        if (!(token instanceof Identifier ident)) {
-            throw new ParseException("expected identifier but got " + token);
+
+    public int expectIdentifier() {
+        if (!isIdentifier()) {
+            throw new ParseException("expected identifier but got " + describe());
         }
-        this.idx++;
-        return ident;
+        return this.idx++;
     }
 
-    public Token consume() {
-        Token token = peek();
-        this.idx++;
-        return token;
+    public int consume() {
+        expectHasMore();
+        return this.idx++;
     }
 
     public boolean hasMore() {
+        if (this.idx == this.tokens.size() && this.lexer != null) {
+            this.lexer.nextToken(this.tokens);
+        }
         return this.idx < this.tokens.size();
     }
 
+    public LineTable lines() {
+        return this.tokens.lines();
+    }
+
+    public long span(int token) {
+        return this.tokens.span(token);
+    }
+
+    public Keyword keyword(int token) {
+        return new Keyword(this.tokens.keywordType(token), span(token));
+    }
+
+    public Operator operator(int token) {
+        return new Operator(this.tokens.operatorType(token), span(token));
+    }
+
+    /// {@return the name of an identifier token}
+    public Name name(int token) {
+        int symbol = this.tokens.symbol(token);
+        return Name.forSymbol(symbol, this.tokens.symbols().lexeme(symbol).toString());
+    }
+
+    /// {@return the text of a number literal token}
+    public String text(int token) {
+        return this.tokens.lexeme(token).toString();
+    }
+
+    /// {@return the base of a number literal token}
+    public int base(int token) {
+        return this.tokens.base(token);
+    }
+
     private void expectHasMore() {
-        if (this.idx >= this.tokens.size()) {
+        if (!hasMore()) {
             throw new ParseException("reached end of file");
         }
     }
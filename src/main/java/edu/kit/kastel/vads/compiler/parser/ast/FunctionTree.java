@@ -20,8 +20,8 @@ public final class FunctionTree implements Tree {
     }
 
     @Override
-    public Span span() {
-        return new Span.SimpleSpan(returnType().span().start(), body().span().end());
+    public long span() {
+        return Span.of(Span.start(returnType().span()), Span.end(body().span()));
     }
 
     @Override
@@ -13,8 +13,8 @@ public final class ParameterTree implements Tree {
     }
 
     @Override
-    public Span span() {
-        return new Span.SimpleSpan(type.span().start(), name.span().end());
+    public long span() {
+        return Span.of(Span.start(type.span()), Span.end(name.span()));
     }
 
     @Override
@@ -13,10 +13,10 @@ public record ProgramTree(List<FunctionTree> topLevelTrees) implements Tree {
     }
 
     @Override
-    public Span span() {
+    public long span() {
         var first = topLevelTrees.getFirst();
         var last = topLevelTrees.getLast();
-        return new Span.SimpleSpan(first.span().start(), last.span().end());
+        return Span.of(Span.start(first.span()), Span.end(last.span()));
     }
 
     @Override
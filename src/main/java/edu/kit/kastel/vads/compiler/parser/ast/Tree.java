@@ -1,6 +1,5 @@
 package edu.kit.kastel.vads.compiler.parser.ast;
 
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.lvalue.LValueTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.StatementTree;
@@ -10,7 +9,7 @@ public sealed interface Tree
     permits FunctionTree, NameTree, ParameterTree, ProgramTree, TypeTree, ExpressionTree,
     LValueTree, StatementTree {
 
-    Span span();
+    long span();
 
     <T, R> R accept(Visitor<T, R> visitor, T data);
 }
@@ -17,12 +17,12 @@ public final class FunctionCallTree
     }
 
     @Override
-    public Span span() {
+    public long span() {
         if (arguments.isEmpty()) {
             return name.span();
         }
 
-        return name.span().merge(arguments.getLast().span());
+        return Span.merge(name.span(), arguments.getLast().span());
     }
 
     @Override
@@ -1,6 +1,5 @@
 package edu.kit.kastel.vads.compiler.parser.ast.expression;
 
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 import java.util.Objects;
@@ -13,7 +12,7 @@ public final class IdentExpressionTree implements ExpressionTree {
     }
 
     @Override
-    public Span span() {
+    public long span() {
         return name().span();
     }
 
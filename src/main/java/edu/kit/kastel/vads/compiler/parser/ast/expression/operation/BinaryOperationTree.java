@@ -1,7 +1,6 @@
 package edu.kit.kastel.vads.compiler.parser.ast.expression.operation;
 
 import edu.kit.kastel.vads.compiler.lexer.tokens.Operator;
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 import java.util.Objects;
@@ -20,8 +19,8 @@ public final class BinaryOperationTree implements ExpressionTree {
     }
 
     @Override
-    public Span span() {
-        return lhs().span().merge(rhs().span());
+    public long span() {
+        return OperationSpans.of(this);
     }
 
     @Override
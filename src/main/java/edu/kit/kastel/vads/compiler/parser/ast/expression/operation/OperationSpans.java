@@ -0,0 +1,44 @@
+package edu.kit.kastel.vads.compiler.parser.ast.expression.operation;
+
+import edu.kit.kastel.vads.compiler.Span;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
+
+/// Computes the spans of operations from their first and last operand,
+/// walking down nested operations in a loop so that deep expressions do not overflow the stack.
+final class OperationSpans {
+    private OperationSpans() {
+        throw new UnsupportedOperationException();
+    }
+
+    static long of(ExpressionTree operation) {
+        return Span.merge(first(operation), last(operation));
+    }
+
+    private static long first(ExpressionTree expression) {
+        while (true) {
+            switch (expression) {
+                case BinaryOperationTree binary -> expression = binary.lhs();
+                case TernaryOperationTree ternary -> expression = ternary.condition();
+                case UnaryOperationTree unary -> {
+                    return unary.operator().span();
+                }
+                default -> {
+                    return expression.span();
+                }
+            }
+        }
+    }
+
+    private static long last(ExpressionTree expression) {
+        while (true) {
+            switch (expression) {
+                case BinaryOperationTree binary -> expression = binary.rhs();
+                case TernaryOperationTree ternary -> expression = ternary.falseBranch();
+                case UnaryOperationTree unary -> expression = unary.operand();
+                default -> {
+                    return expression.span();
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package edu.kit.kastel.vads.compiler.parser.ast.expression.operation;
 
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 import java.util.Objects;
@@ -20,8 +19,8 @@ public final class TernaryOperationTree
     }
 
     @Override
-    public Span span() {
-        return condition().span().merge(falseBranch().span());
+    public long span() {
+        return OperationSpans.of(this);
     }
 
     @Override
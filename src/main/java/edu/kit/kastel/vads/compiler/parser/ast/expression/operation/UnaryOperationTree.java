@@ -1,6 +1,5 @@
 package edu.kit.kastel.vads.compiler.parser.ast.expression.operation;
 
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Operator;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
@@ -19,8 +18,8 @@ public final class UnaryOperationTree implements ExpressionTree {
     }
 
     @Override
-    public Span span() {
-        return operator.span().merge(operand.span());
+    public long span() {
+        return OperationSpans.of(this);
     }
 
     @Override
@@ -1,6 +1,5 @@
 package edu.kit.kastel.vads.compiler.parser.ast.lvalue;
 
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 import java.util.Objects;
@@ -13,7 +12,7 @@ public final class LValueIdentTree implements LValueTree {
     }
 
     @Override
-    public Span span() {
+    public long span() {
         return name().span();
     }
 
@@ -19,8 +19,8 @@ public final class AssignmentTree implements StatementTree {
     }
 
     @Override
-    public Span span() {
-        return lValue().span().merge(expression().span());
+    public long span() {
+        return Span.merge(lValue().span(), expression().span());
     }
 
     @Override
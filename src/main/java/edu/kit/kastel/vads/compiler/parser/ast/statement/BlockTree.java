@@ -1,12 +1,11 @@
 package edu.kit.kastel.vads.compiler.parser.ast.statement;
 
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public record BlockTree(List<StatementTree> statements, Span span) implements StatementTree {
+public record BlockTree(List<StatementTree> statements, long span) implements StatementTree {
 
     public BlockTree {
         statements = new ArrayList<>(statements);
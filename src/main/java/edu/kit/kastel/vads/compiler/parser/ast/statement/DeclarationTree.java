@@ -20,12 +20,12 @@ public final class DeclarationTree implements StatementTree {
     }
 
     @Override
-    public Span span() {
+    public long span() {
         ExpressionTree initializerTree = initializer();
         if (initializerTree != null) {
-            return type().span().merge(initializerTree.span());
+            return Span.merge(type().span(), initializerTree.span());
         }
-        return type().span().merge(name().span());
+        return Span.merge(type().span(), name().span());
     }
 
     @Override
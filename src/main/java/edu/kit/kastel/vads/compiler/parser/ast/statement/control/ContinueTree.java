@@ -1,9 +1,8 @@
 package edu.kit.kastel.vads.compiler.parser.ast.statement.control;
 
-import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 
-public record ContinueTree(Span span) implements ControlTree {
+public record ContinueTree(long span) implements ControlTree {
     @Override
     public <T, R> R accept(Visitor<T, R> visitor, T data) {
         return visitor.visit(this, data);
@@ -28,8 +28,8 @@ public final class ForTree implements ControlTree {
     }
 
     @Override
-    public Span span() {
-        return forKeyword.span().merge(body.span());
+    public long span() {
+        return Span.merge(forKeyword.span(), body.span());
     }
 
     @Override
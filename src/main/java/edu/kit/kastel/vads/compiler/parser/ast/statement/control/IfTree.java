@@ -26,9 +26,9 @@ public final class IfTree
     }
 
     @Override
-    public Span span() {
+    public long span() {
         StatementTree block = elseBlock();
-        return ifKeyword().span().merge(block == null
+        return Span.merge(ifKeyword().span(), block == null
             ? thenBlock().span()
             : block.span());
     }
@@ -1,6 +1,5 @@
 package edu.kit.kastel.vads.compiler.parser.ast.statement.control;
 
-import edu.kit.kastel.vads.compiler.Position;
 import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
@@ -8,16 +7,17 @@ import java.util.Objects;
 
 public final class ReturnTree implements ControlTree {
     private ExpressionTree expression;
-    private final Position start;
+    private final int start;
 
-    public ReturnTree(ExpressionTree expression, Position start) {
+    /// @param start the offset of the `return` keyword
+    public ReturnTree(ExpressionTree expression, int start) {
         this.expression = expression;
         this.start = start;
     }
 
     @Override
-    public Span span() {
-        return new Span.SimpleSpan(start(), expression().span().end());
+    public long span() {
+        return Span.of(start(), Span.end(expression().span()));
     }
 
     @Override
@@ -33,7 +33,7 @@ public final class ReturnTree implements ControlTree {
         this.expression = expression;
     }
 
-    public Position start() {
+    public int start() {
         return start;
     }
 
@@ -47,7 +47,7 @@ public final class ReturnTree implements ControlTree {
         }
         var that = (ReturnTree) obj;
         return Objects.equals(this.expression, that.expression) &&
-            Objects.equals(this.start, that.start);
+            this.start == that.start;
     }
 
     @Override
@@ -21,8 +21,8 @@ public final class WhileTree implements ControlTree {
     }
 
     @Override
-    public Span span() {
-        return whileKeyword.span().merge(body.span());
+    public long span() {
+        return Span.merge(whileKeyword.span(), body.span());
     }
 
     @Override
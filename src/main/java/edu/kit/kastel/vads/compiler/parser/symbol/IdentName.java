@@ -1,8 +1,19 @@
 package edu.kit.kastel.vads.compiler.parser.symbol;
 
-record IdentName(String identifier) implements Name {
+record IdentName(int id, String identifier) implements Name {
     @Override
     public String asString() {
         return identifier();
     }
+
+    // identifiers are interned, so the symbol alone identifies the name
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof IdentName other && other.id == this.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.id;
+    }
 }
@@ -1,17 +1,16 @@
 package edu.kit.kastel.vads.compiler.parser.symbol;
 
-import edu.kit.kastel.vads.compiler.lexer.tokens.Identifier;
-import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword;
+public sealed interface Name permits IdentName {
 
-public sealed interface Name permits IdentName, KeywordName {
-
-    static Name forKeyword(Keyword keyword) {
-        return new KeywordName(keyword.type());
+    /// @param symbol the symbol of the identifier
+    /// @see edu.kit.kastel.vads.compiler.lexer.SymbolTable
+    static Name forSymbol(int symbol, String identifier) {
+        return new IdentName(symbol, identifier);
     }
 
-    static Name forIdentifier(Identifier identifier) {
-        return new IdentName(identifier.value());
-    }
+    /// {@return the symbol of the name, dense and unique within its compilation}
+    /// @see edu.kit.kastel.vads.compiler.lexer.SymbolTable
+    int id();
 
     String asString();
 }
@@ -0,0 +1,129 @@
+package edu.kit.kastel.vads.compiler.parser.symbol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.jspecify.annotations.Nullable;
+
+/// A map from names to values, keyed by the dense [Name#id()] instead of hashing and comparing names.
+///
+/// The ids are stored in a primitive open addressing table sized by the number of entries,
+/// not by the number of symbols in the compilation, so copying a small map stays cheap.
+public final class NameMap<T> {
+    private static final int EMPTY = -1;
+
+    private int[] ids;
+    private @Nullable Name[] names;
+    private @Nullable Object[] values;
+    private int size;
+
+    public NameMap() {
+        this.ids = new int[8];
+        Arrays.fill(this.ids, EMPTY);
+        this.names = new Name[8];
+        this.values = new Object[8];
+    }
+
+    public NameMap(NameMap<T> other) {
+        this.ids = other.ids.clone();
+        this.names = other.names.clone();
+        this.values = other.values.clone();
+        this.size = other.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(Name name) {
+        int slot = slot(this.ids, name.id());
+        return this.ids[slot] == EMPTY ? null : (T) this.values[slot];
+    }
+
+    public boolean containsKey(Name name) {
+        return this.ids[slot(this.ids, name.id())] != EMPTY;
+    }
+
+    public void put(Name name, T value) {
+        int slot = slot(this.ids, name.id());
+        if (this.ids[slot] == EMPTY) {
+            if ((this.size + 1) * 4 > this.ids.length * 3) {
+                grow();
+                slot = slot(this.ids, name.id());
+            }
+            this.ids[slot] = name.id();
+            this.names[slot] = name;
+            this.size++;
+        }
+        this.values[slot] = value;
+    }
+
+    public void remove(Name name) {
+        int mask = this.ids.length - 1;
+        int hole = slot(this.ids, name.id());
+        if (this.ids[hole] == EMPTY) {
+            return;
+        }
+        // shift back the following entries of the run that may not be found anymore otherwise
+        for (int next = (hole + 1) & mask; this.ids[next] != EMPTY; next = (next + 1) & mask) {
+            int home = this.ids[next] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.ids[hole] = this.ids[next];
+                this.names[hole] = this.names[next];
+                this.values[hole] = this.values[next];
+                hole = next;
+            }
+        }
+        this.ids[hole] = EMPTY;
+        this.names[hole] = null;
+        this.values[hole] = null;
+        this.size--;
+    }
+
+    /// Calls the action for every entry. The action must not add entries.
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<Name, T> action) {
+        for (int slot = 0; slot < this.ids.length; slot++) {
+            if (this.ids[slot] != EMPTY) {
+                action.accept(this.names[slot], (T) this.values[slot]);
+            }
+        }
+    }
+
+    public List<Name> names() {
+        List<Name> names = new ArrayList<>(this.size);
+        forEach((name, _) -> names.add(name));
+        return names;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /// {@return the slot holding the id, or the empty slot where it belongs}
+    private static int slot(int[] ids, int id) {
+        int mask = ids.length - 1;
+        // symbols are dense, so consecutive ids simply occupy consecutive slots
+        int slot = id & mask;
+        while (ids[slot] != EMPTY && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldIds = this.ids;
+        Name[] oldNames = this.names;
+        Object[] oldValues = this.values;
+        this.ids = new int[oldIds.length * 2];
+        Arrays.fill(this.ids, EMPTY);
+        this.names = new Name[oldIds.length * 2];
+        this.values = new Object[oldIds.length * 2];
+        for (int old = 0; old < oldIds.length; old++) {
+            if (oldIds[old] != EMPTY) {
+                int slot = slot(this.ids, oldIds[old]);
+                this.ids[slot] = oldIds[old];
+                this.names[slot] = oldNames[old];
+                this.values[slot] = oldValues[old];
+            }
+        }
+    }
+}
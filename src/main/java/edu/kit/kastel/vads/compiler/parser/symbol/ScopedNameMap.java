@@ -0,0 +1,97 @@
+package edu.kit.kastel.vads.compiler.parser.symbol;
+
+import java.util.Arrays;
+import org.jspecify.annotations.Nullable;
+
+/// A [NameMap] with nested scopes, as a symbol table.
+///
+/// Entering a scope does not copy the map. Instead, every change records the previous value in an undo log,
+/// and leaving a scope reverts the changes made in it.
+/// Entering a scope and changing an entry take amortized constant time,
+/// leaving a scope takes time linear in the changes made in it.
+public final class ScopedNameMap<T> {
+    private static final Object ABSENT = new Object();
+
+    private final NameMap<T> entries = new NameMap<>();
+    private @Nullable Name[] changedNames = new Name[16];
+    private @Nullable Object[] previousValues = new Object[16];
+    private int changes;
+    private int[] scopeStarts = new int[8];
+    private int scopes;
+
+    public @Nullable T get(Name name) {
+        return this.entries.get(name);
+    }
+
+    public boolean containsKey(Name name) {
+        return this.entries.containsKey(name);
+    }
+
+    public void put(Name name, T value) {
+        if (this.changes == this.changedNames.length) {
+            this.changedNames = Arrays.copyOf(this.changedNames, this.changes * 2);
+            this.previousValues = Arrays.copyOf(this.previousValues, this.changes * 2);
+        }
+        this.changedNames[this.changes] = name;
+        this.previousValues[this.changes] = this.entries.containsKey(name) ? this.entries.get(name) : ABSENT;
+        this.changes++;
+        this.entries.put(name, value);
+    }
+
+    /// Enters a new innermost scope.
+    public void push() {
+        if (this.scopes == this.scopeStarts.length) {
+            this.scopeStarts = Arrays.copyOf(this.scopeStarts, this.scopes * 2);
+        }
+        this.scopeStarts[this.scopes++] = this.changes;
+    }
+
+    /// Leaves the innermost scope, reverting all changes made in it.
+    @SuppressWarnings("unchecked")
+    public void pop() {
+        int start = scopeStart();
+        while (this.changes > start) {
+            this.changes--;
+            Name name = this.changedNames[this.changes];
+            Object previous = this.previousValues[this.changes];
+            if (previous == ABSENT) {
+                this.entries.remove(name);
+            } else {
+                this.entries.put(name, (T) previous);
+            }
+            this.changedNames[this.changes] = null;
+            this.previousValues[this.changes] = null;
+        }
+    }
+
+    /// Leaves the innermost scope, removing the entries added in it
+    /// but keeping the values it assigned to entries of the enclosing scopes.
+    /// Those changes are reverted when the enclosing scope is left.
+    public void popKeepingUpdates() {
+        int start = scopeStart();
+        for (int change = start; change < this.changes; change++) {
+            if (this.previousValues[change] == ABSENT) {
+                this.entries.remove(this.changedNames[change]);
+            }
+        }
+        int kept = start;
+        for (int change = start; change < this.changes; change++) {
+            // the entries that are still there existed before the scope
+            if (this.entries.containsKey(this.changedNames[change])) {
+                this.changedNames[kept] = this.changedNames[change];
+                this.previousValues[kept] = this.previousValues[change];
+                kept++;
+            }
+        }
+        Arrays.fill(this.changedNames, kept, this.changes, null);
+        Arrays.fill(this.previousValues, kept, this.changes, null);
+        this.changes = kept;
+    }
+
+    private int scopeStart() {
+        if (this.scopes == 0) {
+            throw new IllegalStateException("No scope to leave");
+        }
+        return this.scopeStarts[--this.scopes];
+    }
+}
@@ -3,6 +3,7 @@ package edu.kit.kastel.vads.compiler.parser.visitor;
 import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.ParameterTree;
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.IdentExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.BinaryOperationTree;
@@ -17,7 +18,21 @@ import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ForTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
-
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/// A visitor aggregating the results of the children of every tree.
+///
+/// **Nested operations are not visited through `visit`.**
+/// An operand of a [BinaryOperationTree], [TernaryOperationTree] or [UnaryOperationTree]
+/// that is an operation itself is aggregated by the loop of the outermost operation,
+/// without calling the `visit` method of its type, so the depth of an expression is only bounded by the heap.
+/// Overriding one of these three methods hence only affects operations that are not an operand of another one.
+/// An implementation that has to see every operation must override the method for the outermost ones
+/// and traverse their operands itself.
+/// All other trees, including the operands that are no operations, are visited through `visit` as usual.
+/// @param <T> a type for additional data
+/// @param <R> a type for a return type
 public interface AggregateVisitor<T, R> extends Visitor<T, R> {
 
     @Override
@@ -29,9 +44,7 @@ public interface AggregateVisitor<T, R> extends Visitor<T, R> {
 
     @Override
     default R visit(BinaryOperationTree binaryOperationTree, T data) {
-        R r = visit(binaryOperationTree.lhs(), data);
-        r = visit(binaryOperationTree.rhs(), aggregate(data, r));
-        return r;
+        return aggregateOperation(binaryOperationTree, data);
     }
 
     @Override
@@ -125,15 +138,37 @@ public interface AggregateVisitor<T, R> extends Visitor<T, R> {
 
     @Override
     default R visit(TernaryOperationTree ternaryOperationTree, T data) {
-        R r = visit(ternaryOperationTree.condition(), data);
-        r = visit(ternaryOperationTree.trueBranch(), aggregate(data, r));
-        r = visit(ternaryOperationTree.falseBranch(), aggregate(data, r));
-        return r;
+        return aggregateOperation(ternaryOperationTree, data);
     }
 
     @Override
     default R visit(UnaryOperationTree unaryOperationTree, T data) {
-        return visit(unaryOperationTree.operand(), data);
+        return aggregateOperation(unaryOperationTree, data);
+    }
+
+    /// Aggregates the operands of an operation, keeping the operations on the path to them on a stack.
+    /// Operations nested in it are aggregated by the same loop instead of their `visit` method,
+    /// see the limitation described on the interface.
+    private R aggregateOperation(ExpressionTree operation, T data) {
+        Deque<Frame<T, R>> path = new ArrayDeque<>();
+        Frame<T, R> frame = new Frame<>(operation, data);
+        while (true) {
+            Tree operand = frame.nextChild();
+            if (operand instanceof BinaryOperationTree || operand instanceof TernaryOperationTree
+                || operand instanceof UnaryOperationTree) {
+                path.push(frame);
+                frame = new Frame<>(operand, frame.childData(this::aggregate));
+            } else if (operand != null) {
+                frame.setResult(operand.accept(this, frame.childData(this::aggregate)));
+            } else {
+                Frame<T, R> parent = path.poll();
+                if (parent == null) {
+                    return frame.result();
+                }
+                parent.setResult(frame.result());
+                frame = parent;
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,226 @@
+package edu.kit.kastel.vads.compiler.parser.visitor;
+
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ParameterTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
+import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.BooleanTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.FunctionCallTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.TernaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.UnaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.lvalue.LValueIdentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.lvalue.LValueTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.StatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.BreakTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ContinueTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ForTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.jspecify.annotations.Nullable;
+
+/// A tree whose children are being traversed, for the visitors keeping their path on a stack instead of recursing.
+///
+/// The children are those the recursive visitors used to descend into, in the same order.
+/// Absent optional children are skipped.
+/// Like the recursive visitors, the statements of a block get the data aggregated from all the previous statements,
+/// while all other children only get the data aggregated with the result of the previous child.
+final class Frame<T, R> {
+    private final Tree tree;
+    private T data;
+    private final boolean chained;
+    private final List<? extends @Nullable Tree> children;
+    private int next;
+    private @Nullable R result;
+    private boolean hasResult;
+    // whether the result is already aggregated into the data of a chained frame
+    private boolean aggregated;
+
+    Frame(Tree tree, T data) {
+        this(tree, data, true);
+    }
+
+    /// @param descend whether to traverse the children at all
+    Frame(Tree tree, T data, boolean descend) {
+        this.tree = tree;
+        this.data = data;
+        this.chained = tree instanceof BlockTree;
+        this.children = descend ? children(tree) : List.of();
+    }
+
+    Tree tree() {
+        return this.tree;
+    }
+
+    /// {@return the next child to traverse, or `null` once all are done}
+    @Nullable Tree nextChild() {
+        while (this.next < this.children.size()) {
+            Tree child = this.children.get(this.next++);
+            if (child != null) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /// {@return the index of the child last returned by [#nextChild()]}
+    int childIndex() {
+        return this.next - 1;
+    }
+
+    /// {@return the data for the next child, aggregated with the result of the previous one}
+    T childData(BiFunction<T, R, T> aggregate) {
+        if (!this.hasResult) {
+            return this.data;
+        }
+        if (!this.chained) {
+            return aggregate.apply(this.data, this.result);
+        }
+        if (!this.aggregated) {
+            this.data = aggregate.apply(this.data, this.result);
+            this.aggregated = true;
+        }
+        return this.data;
+    }
+
+    void setResult(R result) {
+        this.result = result;
+        this.hasResult = true;
+        this.aggregated = false;
+    }
+
+    /// {@return the result of the last child}
+    R result() {
+        assert this.hasResult : "no child of " + this.tree + " has been traversed";
+        return this.result;
+    }
+
+    private static List<? extends @Nullable Tree> children(Tree tree) {
+        return switch (tree) {
+            case AssignmentTree assignment -> List.of(assignment.lValue(), assignment.expression());
+            case BinaryOperationTree binary -> List.of(binary.lhs(), binary.rhs());
+            case BlockTree block -> block.statements();
+            case DeclarationTree declaration ->
+                Arrays.asList(declaration.type(), declaration.name(), declaration.initializer());
+            case ForTree forTree -> Arrays.asList(forTree.init(), forTree.condition(), forTree.body(), forTree.update());
+            // the parameters are not traversed
+            case FunctionTree function -> List.of(function.returnType(), function.name(), function.body());
+            case FunctionCallTree call -> {
+                Tree[] trees = new Tree[call.arguments().size() + 1];
+                trees[0] = call.name();
+                for (int i = 0; i < call.arguments().size(); i++) {
+                    trees[i + 1] = call.arguments().get(i);
+                }
+                yield List.of(trees);
+            }
+            case IdentExpressionTree ident -> List.of(ident.name());
+            case IfTree ifTree -> Arrays.asList(ifTree.condition(), ifTree.thenBlock(), ifTree.elseBlock());
+            case LValueIdentTree lValue -> List.of(lValue.name());
+            case ParameterTree parameter -> List.of(parameter.type(), parameter.name());
+            case ProgramTree program -> program.topLevelTrees();
+            case ReturnTree returnTree -> List.of(returnTree.expression());
+            case TernaryOperationTree ternary ->
+                List.of(ternary.condition(), ternary.trueBranch(), ternary.falseBranch());
+            case UnaryOperationTree unary -> List.of(unary.operand());
+            case WhileTree whileTree -> List.of(whileTree.condition(), whileTree.body());
+            case BooleanTree _, BreakTree _, ContinueTree _, LiteralTree _, NameTree _, TypeTree _ -> List.of();
+        };
+    }
+
+    /// Replaces the child of `tree` at `index` in the list of [#children(Tree)].
+    static void replaceChild(Tree tree, int index, Tree child) {
+        switch (tree) {
+            case AssignmentTree assignment -> {
+                if (index == 0) {
+                    assignment.setLvalue((LValueTree) child);
+                } else {
+                    assignment.setExpression((ExpressionTree) child);
+                }
+            }
+            case BinaryOperationTree binary -> {
+                if (index == 0) {
+                    binary.setLhs((ExpressionTree) child);
+                } else {
+                    binary.setRhs((ExpressionTree) child);
+                }
+            }
+            case BlockTree block -> block.setStatement(index, (StatementTree) child);
+            case DeclarationTree declaration -> {
+                switch (index) {
+                    case 0 -> declaration.setType((TypeTree) child);
+                    case 1 -> declaration.setName((NameTree) child);
+                    default -> declaration.setInitializer((ExpressionTree) child);
+                }
+            }
+            case ForTree forTree -> {
+                switch (index) {
+                    case 0 -> forTree.setInit((StatementTree) child);
+                    case 1 -> forTree.setCondition((ExpressionTree) child);
+                    case 2 -> forTree.setBody((StatementTree) child);
+                    default -> forTree.setUpdate((StatementTree) child);
+                }
+            }
+            case FunctionTree function -> {
+                switch (index) {
+                    case 0 -> function.setReturnType((TypeTree) child);
+                    case 1 -> function.setName((NameTree) child);
+                    default -> function.setBody((BlockTree) child);
+                }
+            }
+            case FunctionCallTree call -> {
+                if (index == 0) {
+                    call.setName((NameTree) child);
+                } else {
+                    call.arguments().set(index - 1, (ExpressionTree) child);
+                }
+            }
+            case IdentExpressionTree ident -> ident.setName((NameTree) child);
+            case IfTree ifTree -> {
+                switch (index) {
+                    case 0 -> ifTree.setCondition((ExpressionTree) child);
+                    case 1 -> ifTree.setThenBlock((StatementTree) child);
+                    default -> ifTree.setElseBlock((StatementTree) child);
+                }
+            }
+            case LValueIdentTree lValue -> lValue.setName((NameTree) child);
+            case ParameterTree parameter -> {
+                if (index == 0) {
+                    parameter.setType((TypeTree) child);
+                } else {
+                    parameter.setName((NameTree) child);
+                }
+            }
+            case ProgramTree program -> program.setFunction(index, (FunctionTree) child);
+            case ReturnTree returnTree -> returnTree.setExpression((ExpressionTree) child);
+            case TernaryOperationTree ternary -> {
+                switch (index) {
+                    case 0 -> ternary.setCondition((ExpressionTree) child);
+                    case 1 -> ternary.setTrueBranch((ExpressionTree) child);
+                    default -> ternary.setFalseBranch((ExpressionTree) child);
+                }
+            }
+            case UnaryOperationTree unary -> unary.setOperand((ExpressionTree) child);
+            case WhileTree whileTree -> {
+                if (index == 0) {
+                    whileTree.setCondition((ExpressionTree) child);
+                } else {
+                    whileTree.setBody((StatementTree) child);
+                }
+            }
+            case BooleanTree _, BreakTree _, ContinueTree _, LiteralTree _, NameTree _, TypeTree _ ->
+                throw new IllegalArgumentException(tree + " has no children");
+        }
+    }
+}
@@ -2,7 +2,6 @@ package edu.kit.kastel.vads.compiler.parser.visitor;
 
 import edu.kit.kastel.vads.compiler.parser.ast.ParameterTree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.BooleanTree;
-import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.UnaryOperationTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.AssignmentTree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.BinaryOperationTree;
@@ -14,19 +13,25 @@ import edu.kit.kastel.vads.compiler.parser.ast.lvalue.LValueIdentTree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.LiteralTree;
 import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.BreakTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ContinueTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ForTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
-import edu.kit.kastel.vads.compiler.parser.ast.statement.StatementTree;
 import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
 import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.TernaryOperationTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /// A visitor that traverses a tree in postorder
 /// @param <T> a type for additional data
 /// @param <R> a type for a return type
+///
+/// The trees on the path to the visited one are kept on a stack instead of recursing,
+/// so the depth of a tree is only bounded by the heap.
+/// Each child, and finally the tree itself, is visited with the data accumulated from the result of the previous child.
 public class RecursivePostorderVisitor<T, R> implements Visitor<T, R> {
     protected final Visitor<T, R> visitor;
 
@@ -36,171 +41,127 @@ public class RecursivePostorderVisitor<T, R> implements Visitor<T, R> {
 
     @Override
     public R visit(AssignmentTree assignmentTree, T data) {
-        R r = assignmentTree.lValue().accept(this, data);
-        r = assignmentTree.expression().accept(this, accumulate(data, r));
-        r = this.visitor.visit(assignmentTree, accumulate(data, r));
-        return r;
+        return traverse(assignmentTree, data);
     }
 
     @Override
     public R visit(BinaryOperationTree binaryOperationTree, T data) {
-        R r = binaryOperationTree.lhs().accept(this, data);
-        r = binaryOperationTree.rhs().accept(this, accumulate(data, r));
-        r = this.visitor.visit(binaryOperationTree, accumulate(data, r));
-        return r;
+        return traverse(binaryOperationTree, data);
     }
 
     @Override
     public R visit(BlockTree blockTree, T data) {
-        R r;
-        T d = data;
-        for (StatementTree statement : blockTree.statements()) {
-            r = statement.accept(this, d);
-            d = accumulate(d, r);
-        }
-        r = this.visitor.visit(blockTree, d);
-        return r;
+        return traverse(blockTree, data);
     }
 
     @Override
     public R visit(BooleanTree booleanTree, T data) {
-        return this.visitor.visit(booleanTree, data);
+        return traverse(booleanTree, data);
     }
 
     @Override
     public R visit(BreakTree breakTree, T data) {
-        return this.visitor.visit(breakTree, data);
+        return traverse(breakTree, data);
     }
 
     @Override
     public R visit(ContinueTree continueTree, T data) {
-        return this.visitor.visit(continueTree, data);
+        return traverse(continueTree, data);
     }
 
     @Override
     public R visit(DeclarationTree declarationTree, T data) {
-        R r = declarationTree.type().accept(this, data);
-        r = declarationTree.name().accept(this, accumulate(data, r));
-        ExpressionTree declaration = declarationTree.initializer();
-        if (declaration != null) {
-            r = declaration.accept(this, accumulate(data, r));
-        }
-        r = this.visitor.visit(declarationTree, accumulate(data, r));
-        return r;
+        return traverse(declarationTree, data);
     }
 
     @Override
     public R visit(ForTree forTree, T data) {
-        R r = null;
-        StatementTree init = forTree.init();
-        if (init != null) r = init.accept(this, data);
-        r = forTree.condition().accept(this, r == null ? data : accumulate(data, r));
-        r = forTree.body().accept(this, accumulate(data, r));
-        StatementTree update = forTree.update();
-        if (update != null) r = update.accept(this, accumulate(data, r));
-        r = this.visitor.visit(forTree, accumulate(data, r));
-        return r;
+        return traverse(forTree, data);
     }
 
     @Override
     public R visit(FunctionTree functionTree, T data) {
-        R r = functionTree.returnType().accept(this, data);
-        r = functionTree.name().accept(this, accumulate(data, r));
-        r = functionTree.body().accept(this, accumulate(data, r));
-        r = this.visitor.visit(functionTree, accumulate(data, r));
-        return r;
+        return traverse(functionTree, data);
     }
 
     @Override
     public R visit(IdentExpressionTree identExpressionTree, T data) {
-        R r = identExpressionTree.name().accept(this, data);
-        r = this.visitor.visit(identExpressionTree, accumulate(data, r));
-        return r;
+        return traverse(identExpressionTree, data);
     }
 
     @Override
     public R visit(IfTree ifTree, T data) {
-        R r = ifTree.condition().accept(this, data);
-        r = ifTree.thenBlock().accept(this, accumulate(data, r));
-        StatementTree elseBlock = ifTree.elseBlock();
-        if (elseBlock != null) {
-            r = elseBlock.accept(this, accumulate(data, r));
-        }
-        r = this.visitor.visit(ifTree, accumulate(data, r));
-        return r;
+        return traverse(ifTree, data);
     }
 
     @Override
     public R visit(LiteralTree literalTree, T data) {
-        return this.visitor.visit(literalTree, data);
+        return traverse(literalTree, data);
     }
 
     @Override
     public R visit(LValueIdentTree lValueIdentTree, T data) {
-        R r = lValueIdentTree.name().accept(this, data);
-        r = this.visitor.visit(lValueIdentTree, accumulate(data, r));
-        return r;
+        return traverse(lValueIdentTree, data);
     }
 
     @Override
     public R visit(NameTree nameTree, T data) {
-        return this.visitor.visit(nameTree, data);
+        return traverse(nameTree, data);
     }
 
     @Override
     public R visit(ParameterTree parameterTree, T data) {
-        R r = parameterTree.type().accept(this, data);
-        r = parameterTree.name().accept(this, accumulate(data, r));
-        r = this.visitor.visit(parameterTree, accumulate(data, r));
-        return r;
+        return traverse(parameterTree, data);
     }
 
     @Override
     public R visit(ProgramTree programTree, T data) {
-        R r;
-        T d = data;
-        for (FunctionTree tree : programTree.topLevelTrees()) {
-            r = tree.accept(this, d);
-            d = accumulate(data, r);
-        }
-        r = this.visitor.visit(programTree, d);
-        return r;
+        return traverse(programTree, data);
     }
 
     @Override
     public R visit(ReturnTree returnTree, T data) {
-        R r = returnTree.expression().accept(this, data);
-        r = this.visitor.visit(returnTree, accumulate(data, r));
-        return r;
+        return traverse(returnTree, data);
     }
 
     @Override
     public R visit(TernaryOperationTree ternaryOperationTree, T data) {
-        R r = ternaryOperationTree.condition().accept(this, data);
-        r = ternaryOperationTree.trueBranch().accept(this, accumulate(data, r));
-        r = ternaryOperationTree.falseBranch().accept(this, accumulate(data, r));
-        r = this.visitor.visit(ternaryOperationTree, accumulate(data, r));
-        return r;
+        return traverse(ternaryOperationTree, data);
     }
 
     @Override
     public R visit(TypeTree typeTree, T data) {
-        return this.visitor.visit(typeTree, data);
+        return traverse(typeTree, data);
     }
 
     @Override
     public R visit(UnaryOperationTree unaryOperationTree, T data) {
-        R r = unaryOperationTree.operand().accept(this, data);
-        r = this.visitor.visit(unaryOperationTree, accumulate(data, r));
-        return r;
+        return traverse(unaryOperationTree, data);
     }
 
     @Override
     public R visit(WhileTree whileTree, T data) {
-        R r = whileTree.condition().accept(this, data);
-        r = whileTree.body().accept(this, accumulate(data, r));
-        r = this.visitor.visit(whileTree, accumulate(data, r));
-        return r;
+        return traverse(whileTree, data);
+    }
+
+    private R traverse(Tree tree, T data) {
+        Deque<Frame<T, R>> path = new ArrayDeque<>();
+        Frame<T, R> frame = new Frame<>(tree, data);
+        while (true) {
+            Tree child = frame.nextChild();
+            if (child != null) {
+                path.push(frame);
+                frame = new Frame<>(child, frame.childData(this::accumulate));
+                continue;
+            }
+            R r = frame.tree().accept(this.visitor, frame.childData(this::accumulate));
+            Frame<T, R> parent = path.poll();
+            if (parent == null) {
+                return r;
+            }
+            parent.setResult(r);
+            frame = parent;
+        }
     }
 
     protected T accumulate(T data, R value) {
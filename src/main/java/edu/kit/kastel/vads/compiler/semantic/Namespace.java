@@ -1,25 +1,25 @@
 package edu.kit.kastel.vads.compiler.semantic;
 
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.symbol.NameMap;
 import edu.kit.kastel.vads.compiler.parser.visitor.Context;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 import org.jspecify.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.BinaryOperator;
 
 public final class Namespace<T> implements Context<Namespace<T>> {
 
-    private final Map<Name, T> content;
+    private final NameMap<T> content;
 
     public Namespace() {
-        this.content = new HashMap<>();
+        this.content = new NameMap<>();
     }
 
-    private Namespace(Map<Name, T> content) {
-        this.content = new HashMap<>(content);
+    private Namespace(NameMap<T> content) {
+        this.content = new NameMap<>(content);
     }
 
     public void put(Name name, T value) {
@@ -27,7 +27,8 @@ public final class Namespace<T> implements Context<Namespace<T>> {
     }
 
     public void put(Name name, T value, BinaryOperator<T> merger) {
-        this.content.merge(name, value, merger);
+        T existing = this.content.get(name);
+        this.content.put(name, existing == null ? value : merger.apply(existing, value));
     }
 
     public @Nullable T get(Name name) {
@@ -35,14 +36,17 @@ public final class Namespace<T> implements Context<Namespace<T>> {
     }
 
     public List<Name> getAllWhere(Predicate<T> predicate) {
-        return this.content.entrySet().stream()
-                .filter(entry -> predicate.test(entry.getValue()))
-                .map(Map.Entry::getKey)
-                .toList();
+        List<Name> names = new ArrayList<>();
+        this.content.forEach((name, value) -> {
+            if (predicate.test(value)) {
+                names.add(name);
+            }
+        });
+        return names;
     }
 
     public List<Name> names() {
-        return List.copyOf(this.content.keySet());
+        return this.content.names();
     }
 
     @Override
@@ -1,13 +1,38 @@
 package edu.kit.kastel.vads.compiler.semantic;
 
+import edu.kit.kastel.vads.compiler.LineTable;
+import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.parser.ast.Tree;
+import org.jspecify.annotations.Nullable;
 
 public class SemanticException extends RuntimeException {
+    private final @Nullable Tree tree;
+    private @Nullable LineTable lines;
+
     public SemanticException(String message) {
         super(message);
+        this.tree = null;
     }
 
     public SemanticException(Tree tree, String message) {
-        super(tree.getClass().getSimpleName() + " " + tree.span() + ": " + message);
+        super(message);
+        this.tree = tree;
+    }
+
+    /// Resolves the span of the tree in the message through the given lines.
+    public SemanticException locate(LineTable lines) {
+        this.lines = lines;
+        return this;
+    }
+
+    @Override
+    public String getMessage() {
+        if (this.tree == null) {
+            return super.getMessage();
+        }
+        long span = this.tree.span();
+        return this.tree.getClass().getSimpleName() + " "
+            + (this.lines == null ? Span.toString(span) : this.lines.format(span))
+            + ": " + super.getMessage();
     }
 }
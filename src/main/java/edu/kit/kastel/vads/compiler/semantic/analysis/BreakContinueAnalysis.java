@@ -39,7 +39,7 @@ public class BreakContinueAnalysis implements AggregateVisitor<BreakContinueAnal
     @Override
     public BreakContinueAnalysis.BreakContinueState visit(BreakTree breakTree, BreakContinueState data) {
         if (!data.inLoop) {
-            throw new SemanticException("Break statement outside of loop at " + breakTree.span());
+            throw new SemanticException(breakTree, "Break statement outside of loop");
         }
         return data;
     }
@@ -47,7 +47,7 @@ public class BreakContinueAnalysis implements AggregateVisitor<BreakContinueAnal
     @Override
     public BreakContinueAnalysis.BreakContinueState visit(ContinueTree continueTree, BreakContinueState data) {
         if (!data.inLoop) {
-            throw new SemanticException("Continue statement outside of loop at " + continueTree.span());
+            throw new SemanticException(continueTree, "Continue statement outside of loop");
         }
         return data;
     }
@@ -0,0 +1,121 @@
+package edu.kit.kastel.vads.compiler.semantic.analysis;
+
+import edu.kit.kastel.vads.compiler.parser.ast.statement.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.StatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.BreakTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ContinueTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ForTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/// Whether statements return, as [ReturnAnalysis] decides it, computed once per statement.
+///
+/// The facts of a statement are derived from those of its children and kept beside the tree,
+/// so asking for every statement of a nested tree takes linear instead of quadratic time.
+/// A statement whose subtree is changed afterward has to be [invalidated][#invalidate(StatementTree)],
+/// together with the statements enclosing it that have been asked for.
+public final class ControlFlowFacts {
+    private final Map<StatementTree, Facts> facts = new IdentityHashMap<>();
+
+    /// @param returns the flow for [ReturnAnalysis] without continue and break
+    /// @param exits the flow for [ReturnAnalysis] with continue and break
+    private record Facts(Flow returns, Flow exits) {
+        static final Facts PASS = new Facts(Flow.PASS, Flow.PASS);
+        static final Facts FRESH = new Facts(Flow.FRESH, Flow.FRESH);
+    }
+
+    /// How a statement changes the state [ReturnAnalysis] passes through it.
+    /// It may set the flag of the state it is given and may continue with a fresh state, like loops do.
+    /// @param sets the value the flag of the given state is set to, `null` if it is left alone
+    /// @param replaces whether the statement continues with a fresh state
+    /// @param value the flag of the fresh state
+    record Flow(@Nullable Boolean sets, boolean replaces, boolean value) {
+        static final Flow PASS = new Flow(null, false, false);
+        static final Flow FRESH = new Flow(null, true, false);
+
+        static Flow set(boolean value) {
+            return new Flow(value, false, false);
+        }
+
+        /// {@return the flag of the given state after the statement}
+        boolean flag(boolean returns) {
+            return this.sets == null ? returns : this.sets;
+        }
+
+        /// {@return the flag of the state the statement continues with}
+        boolean result(boolean returns) {
+            return this.replaces ? this.value : flag(returns);
+        }
+
+        /// {@return the flow of this statement followed by the next one}
+        Flow then(Flow next) {
+            if (this.replaces) {
+                return new Flow(this.sets, true, next.result(this.value));
+            }
+            return new Flow(next.sets == null ? this.sets : next.sets, next.replaces, next.value);
+        }
+    }
+
+    /// {@return whether the statement returns, like [ReturnAnalysis] without continue and break decides it}
+    public boolean returns(StatementTree statement) {
+        return facts(statement).returns().result(false);
+    }
+
+    /// {@return whether the statement returns, continues or breaks,
+    /// like [ReturnAnalysis] with continue and break decides it}
+    public boolean returnsContinuesOrBreaks(StatementTree statement) {
+        return facts(statement).exits().result(false);
+    }
+
+    /// Forgets the facts of the statement, after its subtree has been changed.
+    public void invalidate(StatementTree statement) {
+        this.facts.remove(statement);
+    }
+
+    private Facts facts(StatementTree statement) {
+        Facts cached = this.facts.get(statement);
+        if (cached == null) {
+            cached = compute(statement);
+            this.facts.put(statement, cached);
+        }
+        return cached;
+    }
+
+    private Facts compute(StatementTree statement) {
+        return switch (statement) {
+            case AssignmentTree _, DeclarationTree _ -> Facts.PASS;
+            case BlockTree block -> {
+                @Nullable Flow returns = null;
+                @Nullable Flow exits = null;
+                for (StatementTree child : block.statements()) {
+                    Facts facts = facts(child);
+                    returns = returns == null ? facts.returns() : returns.then(facts.returns());
+                    exits = exits == null ? facts.exits() : exits.then(facts.exits());
+                }
+                yield returns == null || exits == null ? Facts.FRESH : new Facts(returns, exits);
+            }
+            case IfTree ifTree -> {
+                StatementTree elseBlock = ifTree.elseBlock();
+                if (elseBlock == null) {
+                    yield Facts.PASS;
+                }
+                Facts thenFacts = facts(ifTree.thenBlock());
+                Facts elseFacts = facts(elseBlock);
+                yield new Facts(
+                    Flow.set(thenFacts.returns().flag(false) && elseFacts.returns().flag(false)),
+                    Flow.set(thenFacts.exits().flag(false) && elseFacts.exits().flag(false))
+                );
+            }
+            // the loops cannot return, as they might never run
+            case ForTree _, WhileTree _ -> Facts.FRESH;
+            case ReturnTree _ -> new Facts(Flow.set(true), Flow.set(true));
+            case BreakTree _, ContinueTree _ -> new Facts(Flow.PASS, Flow.set(true));
+        };
+    }
+}
@@ -0,0 +1,346 @@
+package edu.kit.kastel.vads.compiler.semantic.analysis;
+
+import static edu.kit.kastel.vads.compiler.parser.type.BasicType.BOOL;
+import static edu.kit.kastel.vads.compiler.parser.type.BasicType.INT;
+import static edu.kit.kastel.vads.compiler.parser.type.BasicType.VOID;
+import static edu.kit.kastel.vads.compiler.semantic.analysis.VariableStatusAnalysis.VariableStatus.DECLARED;
+import static edu.kit.kastel.vads.compiler.semantic.analysis.VariableStatusAnalysis.VariableStatus.INITIALIZED;
+
+import edu.kit.kastel.vads.compiler.lexer.tokens.Operator;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.BooleanTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.FunctionCallTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.TernaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.UnaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.lvalue.LValueIdentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.StatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.BreakTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ContinueTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ForTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
+import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.symbol.ScopedNameMap;
+import edu.kit.kastel.vads.compiler.parser.type.Type;
+import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import edu.kit.kastel.vads.compiler.semantic.analysis.ControlFlowFacts.Flow;
+import edu.kit.kastel.vads.compiler.semantic.analysis.VariableStatusAnalysis.VariableStatus;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.jspecify.annotations.Nullable;
+
+/// Performs the checks of all analyses of [SemanticAnalysis] in a single traversal,
+/// keeping the type and the status of every variable in one scoped symbol table.
+///
+/// It only decides whether a program passes all of them.
+/// The first problem it finds is not necessarily the one the analyses report when they run one after another,
+/// so they have to run to report it.
+/// Programs the analyses treat peculiarly, declarations as the body of a branch or loop and function calls,
+/// are left to them as well.
+///
+/// **Invariant: it never accepts a program that one of the separate analyses rejects.**
+/// Otherwise [SemanticAnalysis#analyze()] lets invalid programs through.
+/// Rejecting a program they accept only costs running them, so whatever it cannot decide exactly is rejected.
+/// `FusedAnalysisTest` checks the invariant on generated programs and mutations of them.
+final class FusedAnalysis {
+    private final ScopedNameMap<Variable> variables = new ScopedNameMap<>();
+
+    private record Variable(Type type, VariableStatus status) {
+        Variable initialized() {
+            return new Variable(this.type, INITIALIZED);
+        }
+    }
+
+    /// A variable whose status a simple statement changes, applied by its parent like [VariableStatusAnalysis] does.
+    private record Change(Name name, Variable variable) {
+    }
+
+    /// What is known about a statement after checking it.
+    /// @param type the type [TypeAnalysis] assigns to it, `VOID` where it does not check it
+    /// @param returns its flow for [ReturnAnalysis] without continue and break
+    /// @param exits its flow for [ReturnAnalysis] with continue and break
+    private record Facts(Type type, Flow returns, Flow exits, @Nullable Change change) {
+        static Facts simple(@Nullable Change change) {
+            return new Facts(VOID, Flow.PASS, Flow.PASS, change);
+        }
+    }
+
+    /// {@return whether the program passes all analyses}
+    boolean accepts(ProgramTree program) {
+        try {
+            program.accept(new MainMethodAnalysis(), Unit.INSTANCE);
+            for (FunctionTree function : program.topLevelTrees()) {
+                function(function);
+            }
+            return true;
+        } catch (SemanticException _) {
+            return false;
+        }
+    }
+
+    private void function(FunctionTree function) {
+        Facts body = block(function.body(), true, false);
+        if (function.returnType().type() != body.type()) {
+            throw rejected("return type mismatch");
+        }
+        if (!body.returns().result(false)) {
+            throw rejected("missing return");
+        }
+    }
+
+    /// @param typed whether [TypeAnalysis] checks the statement, it skips everything after a jump in a block
+    private Facts statement(StatementTree statement, boolean typed, boolean inLoop) {
+        return switch (statement) {
+            case AssignmentTree assignment -> Facts.simple(assignment(assignment, typed));
+            case DeclarationTree declaration -> Facts.simple(declaration(declaration, typed));
+            case BlockTree block -> block(block, typed, inLoop);
+            case IfTree ifTree -> ifStatement(ifTree, typed, inLoop);
+            case WhileTree whileTree -> whileLoop(whileTree, typed);
+            case ForTree forTree -> forLoop(forTree, typed);
+            case ReturnTree returnTree ->
+                new Facts(expression(returnTree.expression(), typed), Flow.set(true), Flow.set(true), null);
+            case BreakTree _, ContinueTree _ -> {
+                if (!inLoop) {
+                    throw rejected("jump outside of loop");
+                }
+                yield new Facts(VOID, Flow.PASS, Flow.set(true), null);
+            }
+        };
+    }
+
+    /// Checks the body of a branch or loop, which [TypeAnalysis] and [VariableStatusAnalysis] scope differently.
+    private Facts body(StatementTree statement, boolean typed, boolean inLoop) {
+        if (statement instanceof DeclarationTree) {
+            throw rejected("declaration as body");
+        }
+        return statement(statement, typed, inLoop);
+    }
+
+    private Facts block(BlockTree block, boolean typed, boolean inLoop) {
+        this.variables.push();
+        boolean reachable = typed;
+        Type type = VOID;
+        @Nullable Flow returns = null;
+        @Nullable Flow exits = null;
+        for (StatementTree statement : block.statements()) {
+            Facts facts = statement(statement, reachable, inLoop);
+            apply(facts.change());
+            if (reachable && facts.type() != VOID) {
+                if (type == VOID) {
+                    type = facts.type();
+                } else if (type != facts.type()) {
+                    throw rejected("inconsistent return types");
+                }
+            }
+            returns = returns == null ? facts.returns() : returns.then(facts.returns());
+            exits = exits == null ? facts.exits() : exits.then(facts.exits());
+            if (statement instanceof BreakTree || statement instanceof ContinueTree
+                || statement instanceof ReturnTree) {
+                reachable = false;
+            }
+        }
+        // variables of the enclosing scopes stay initialized
+        this.variables.popKeepingUpdates();
+        return new Facts(type, returns == null ? Flow.FRESH : returns, exits == null ? Flow.FRESH : exits, null);
+    }
+
+    private @Nullable Change assignment(AssignmentTree assignment, boolean typed) {
+        Type expressionType = expression(assignment.expression(), typed);
+        NameTree name = switch (assignment.lValue()) {
+            case LValueIdentTree lValue -> lValue.name();
+        };
+        Variable variable = this.variables.get(name.name());
+        if (variable == null) {
+            throw rejected("undeclared variable");
+        }
+        var operator = assignment.operator().type();
+        if (operator != Operator.OperatorType.ASSIGN && variable.status() != INITIALIZED) {
+            throw rejected("uninitialized variable");
+        }
+        if (typed) {
+            boolean matches = switch (operator) {
+                case ASSIGN -> variable.type() == expressionType;
+                case ASSIGN_DIV, ASSIGN_MINUS, ASSIGN_MOD, ASSIGN_MUL, ASSIGN_PLUS, ASSIGN_AND,
+                     ASSIGN_OR, ASSIGN_XOR, ASSIGN_SHIFT_LEFT, ASSIGN_SHIFT_RIGHT ->
+                    variable.type() == INT && expressionType == INT;
+                default -> false;
+            };
+            if (!matches) {
+                throw rejected("assignment type mismatch");
+            }
+        }
+        return variable.status() == INITIALIZED ? null : new Change(name.name(), variable.initialized());
+    }
+
+    private Change declaration(DeclarationTree declaration, boolean typed) {
+        Type type = declaration.type().type();
+        ExpressionTree initializer = declaration.initializer();
+        if (initializer != null) {
+            Type initializerType = expression(initializer, typed);
+            if (typed && initializerType != type) {
+                throw rejected("initializer type mismatch");
+            }
+        }
+        Name name = declaration.name().name();
+        if (this.variables.get(name) != null) {
+            throw rejected("variable already declared");
+        }
+        return new Change(name, new Variable(type, initializer == null ? DECLARED : INITIALIZED));
+    }
+
+    private Facts ifStatement(IfTree ifTree, boolean typed, boolean inLoop) {
+        condition(ifTree.condition(), typed);
+        StatementTree elseBlock = ifTree.elseBlock();
+        if (elseBlock == null) {
+            this.variables.push();
+            body(ifTree.thenBlock(), typed, inLoop);
+            this.variables.pop();
+            return new Facts(VOID, Flow.PASS, Flow.PASS, null);
+        }
+
+        Facts thenFacts = body(ifTree.thenBlock(), typed, inLoop);
+        Facts elseFacts = body(elseBlock, typed, inLoop);
+
+        // only simple statements as branches have changes left to apply, all of them initialize a variable
+        boolean thenExits = thenFacts.exits().result(false);
+        boolean elseExits = elseFacts.exits().result(false);
+        @Nullable Change thenChange = thenFacts.change();
+        @Nullable Change elseChange = elseFacts.change();
+        if (thenExits && !elseExits) {
+            apply(elseChange);
+        } else if (!thenExits && elseExits) {
+            apply(thenChange);
+        } else if (!thenExits && thenChange != null && elseChange != null
+            && thenChange.name().id() == elseChange.name().id()) {
+            apply(thenChange);
+        }
+
+        Type type = VOID;
+        if (thenFacts.type() != VOID && elseFacts.type() != VOID) {
+            if (thenFacts.type() != elseFacts.type()) {
+                throw rejected("branch type mismatch");
+            }
+            type = thenFacts.type();
+        }
+        Flow returns = Flow.set(thenFacts.returns().flag(false) && elseFacts.returns().flag(false));
+        Flow exits = Flow.set(thenFacts.exits().flag(false) && elseFacts.exits().flag(false));
+        return new Facts(type, returns, exits, null);
+    }
+
+    private Facts whileLoop(WhileTree whileTree, boolean typed) {
+        condition(whileTree.condition(), typed);
+        this.variables.push();
+        Facts body = body(whileTree.body(), typed, true);
+        this.variables.pop();
+        return new Facts(body.type(), Flow.FRESH, Flow.FRESH, null);
+    }
+
+    private Facts forLoop(ForTree forTree, boolean typed) {
+        StatementTree update = forTree.update();
+        if (update instanceof DeclarationTree) {
+            throw rejected("declaration as for loop step");
+        }
+        this.variables.push();
+        StatementTree init = forTree.init();
+        @Nullable Change initChange = init == null ? null : statement(init, typed, true).change();
+        apply(initChange);
+        condition(forTree.condition(), typed);
+        Facts body = statement(forTree.body(), typed, true);
+        apply(body.change());
+        if (update != null) {
+            apply(statement(update, typed, true).change());
+        }
+        this.variables.pop();
+
+        // the initializer always runs, so it may initialize variables of the enclosing scope
+        if (initChange != null && initChange.variable().status() == INITIALIZED) {
+            Variable variable = this.variables.get(initChange.name());
+            if (variable != null) {
+                this.variables.put(initChange.name(), variable.initialized());
+            }
+        }
+        return new Facts(body.type(), Flow.FRESH, Flow.FRESH, null);
+    }
+
+    private void apply(@Nullable Change change) {
+        if (change != null) {
+            this.variables.put(change.name(), change.variable());
+        }
+    }
+
+    private void condition(ExpressionTree condition, boolean typed) {
+        Type type = expression(condition, typed);
+        if (typed && type != BOOL) {
+            throw rejected("condition must be boolean");
+        }
+    }
+
+    /// {@return the type of the expression, or `VOID` if it is not typed}
+    private Type expression(ExpressionTree expression, boolean typed) {
+        if (!typed) {
+            checkOperands(expression);
+            return VOID;
+        }
+        return switch (expression) {
+            case BinaryOperationTree _, TernaryOperationTree _, UnaryOperationTree _ ->
+                TypeAnalysis.typeOperation(expression, this::operand);
+            default -> operand(expression);
+        };
+    }
+
+    private void checkOperands(ExpressionTree expression) {
+        Deque<ExpressionTree> pending = new ArrayDeque<>();
+        pending.push(expression);
+        while (!pending.isEmpty()) {
+            switch (pending.pop()) {
+                case BinaryOperationTree binary -> {
+                    pending.push(binary.rhs());
+                    pending.push(binary.lhs());
+                }
+                case TernaryOperationTree ternary -> {
+                    pending.push(ternary.falseBranch());
+                    pending.push(ternary.trueBranch());
+                    pending.push(ternary.condition());
+                }
+                case UnaryOperationTree unary -> pending.push(unary.operand());
+                case ExpressionTree operand -> operand(operand);
+            }
+        }
+    }
+
+    private Type operand(ExpressionTree operand) {
+        return switch (operand) {
+            case BooleanTree _ -> BOOL;
+            case LiteralTree literal -> {
+                if (literal.parseValue().isEmpty()) {
+                    throw rejected("invalid integer literal");
+                }
+                yield INT;
+            }
+            case IdentExpressionTree ident -> {
+                Variable variable = this.variables.get(ident.name().name());
+                if (variable == null || variable.status() != INITIALIZED) {
+                    throw rejected("uninitialized variable");
+                }
+                yield variable.type();
+            }
+            case FunctionCallTree _ -> throw rejected("function call");
+            default -> throw new IllegalArgumentException("Not an operand: " + operand);
+        };
+    }
+
+    private static SemanticException rejected(String reason) {
+        return new SemanticException(reason);
+    }
+}
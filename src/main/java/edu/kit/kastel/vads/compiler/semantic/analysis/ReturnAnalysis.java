@@ -61,7 +61,7 @@ class ReturnAnalysis implements AggregateVisitor<ReturnAnalysis.ReturnState, Ret
         data = visit(functionTree.body(), data);
 
         if (!data.returns) {
-            throw new SemanticException("function " + functionTree.name() + " does not return");
+            throw new SemanticException(functionTree, "function " + functionTree.name().name().asString() + " does not return");
         }
         data.returns = false;
         return data;
@@ -1,7 +1,7 @@
 package edu.kit.kastel.vads.compiler.semantic.analysis;
 
+import edu.kit.kastel.vads.compiler.Timings;
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
-import edu.kit.kastel.vads.compiler.parser.ast.Tree;
 import edu.kit.kastel.vads.compiler.parser.visitor.RecursivePostorderVisitor;
 import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
 import edu.kit.kastel.vads.compiler.semantic.Namespace;
@@ -10,27 +10,37 @@ import edu.kit.kastel.vads.compiler.parser.visitor.ScopedContext;
 public class SemanticAnalysis {
 
     private final ProgramTree program;
+    private final Timings timings;
 
-    public SemanticAnalysis(ProgramTree program) {
+    public SemanticAnalysis(ProgramTree program, Timings timings) {
         this.program = program;
+        this.timings = timings;
     }
 
     public void analyze() {
-        this.program.accept(new MainMethodAnalysis(), Unit.INSTANCE);
-        this.program.accept(new RecursivePostorderVisitor<>(new IntegerLiteralRangeAnalysis()), new Namespace<>());
-        this.program.accept(new RecursivePostorderVisitor<>(new IllegalDeclarationAnalysis()), new Namespace<>());
-        this.program.accept(new BreakContinueAnalysis(), new BreakContinueAnalysis.BreakContinueState(false));
-        this.program.accept(new ReturnAnalysis(false), new ReturnAnalysis.ReturnState());
-        this.program.accept(new TypeAnalysis(), new ScopedContext<>(new TypeAnalysis.TypeContext()));
-        this.program.accept(new VariableStatusAnalysis(), new ScopedContext<>(new Namespace<>()));
+        boolean valid = this.timings.time("FusedAnalysis", () -> new FusedAnalysis().accepts(this.program));
+        if (!valid) {
+            // the separate analyses report the error in the order they have always been run in
+            analyzeSeparately();
+        }
     }
 
-    public static boolean containsReturn(Tree tree) {
-        return tree.accept(new ReturnAnalysis(false), new ReturnAnalysis.ReturnState()).returns;
-    }
-
-    public static boolean containsReturnContinueBreak(Tree tree) {
-        return tree.accept(new ReturnAnalysis(true), new ReturnAnalysis.ReturnState()).returns;
+    /// Runs the analyses one after another, each traversing the whole program.
+    public void analyzeSeparately() {
+        this.timings.time("MainMethodAnalysis",
+            () -> this.program.accept(new MainMethodAnalysis(), Unit.INSTANCE));
+        this.timings.time("IntegerLiteralRangeAnalysis",
+            () -> this.program.accept(new RecursivePostorderVisitor<>(new IntegerLiteralRangeAnalysis()), new Namespace<>()));
+        this.timings.time("IllegalDeclarationAnalysis",
+            () -> this.program.accept(new RecursivePostorderVisitor<>(new IllegalDeclarationAnalysis()), new Namespace<>()));
+        this.timings.time("BreakContinueAnalysis",
+            () -> this.program.accept(new BreakContinueAnalysis(), new BreakContinueAnalysis.BreakContinueState(false)));
+        this.timings.time("ReturnAnalysis",
+            () -> this.program.accept(new ReturnAnalysis(false), new ReturnAnalysis.ReturnState()));
+        this.timings.time("TypeAnalysis",
+            () -> this.program.accept(new TypeAnalysis(), new TypeAnalysis.TypeContext()));
+        this.timings.time("VariableStatusAnalysis",
+            () -> this.program.accept(new VariableStatusAnalysis(), new ScopedContext<>(new Namespace<>())));
     }
 
 }
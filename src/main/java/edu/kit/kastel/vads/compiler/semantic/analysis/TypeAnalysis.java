@@ -28,12 +28,13 @@ import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ReturnTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
+import edu.kit.kastel.vads.compiler.parser.symbol.ScopedNameMap;
 import edu.kit.kastel.vads.compiler.parser.type.Type;
-import edu.kit.kastel.vads.compiler.parser.visitor.Context;
-import edu.kit.kastel.vads.compiler.parser.visitor.ScopedContext;
 import edu.kit.kastel.vads.compiler.parser.visitor.Visitor;
 import edu.kit.kastel.vads.compiler.semantic.SemanticException;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -41,19 +42,17 @@ import org.jspecify.annotations.Nullable;
  * It returns a {@link Type} for each tree, which is VOID when the tree
  * is not typed or doesn't have a consistent type in all control paths.
  */
-public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeContext>, Type> {
-    public record TypeContext(HashMap<Name, Type> variableInfo) implements Context<TypeContext> {
-        public TypeContext() {
-            this(new HashMap<>());
-        }
+public class TypeAnalysis implements Visitor<TypeAnalysis.TypeContext, Type> {
+    /// The types of the variables in scope.
+    public static final class TypeContext {
+        private final ScopedNameMap<Type> variableInfo = new ScopedNameMap<>();
 
-        public TypeContext(TypeContext other) {
-            this(new HashMap<>(other.variableInfo));
+        public void push() {
+            variableInfo.push();
         }
 
-        @Override
-        public TypeContext copy() {
-            return new TypeContext(this);
+        public void pop() {
+            variableInfo.pop();
         }
 
         public void addVariable(Name name, Type type) {
@@ -77,7 +76,7 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(AssignmentTree assignmentTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(AssignmentTree assignmentTree, TypeContext scope) {
         Type lValueType;
         switch (assignmentTree.lValue()) {
             case LValueIdentTree lValueIdentTree -> lValueType = visit(lValueIdentTree.name(), scope);
@@ -110,9 +109,11 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
 
     @Override
     public Type visit(BinaryOperationTree binaryOperationTree,
-                      ScopedContext<TypeAnalysis.TypeContext> scope) {
-        var lhs = visit(binaryOperationTree.lhs(), scope);
-        var rhs = visit(binaryOperationTree.rhs(), scope);
+                      TypeContext scope) {
+        return typeOperation(binaryOperationTree, operand -> visit(operand, scope));
+    }
+
+    private static Type binaryType(BinaryOperationTree binaryOperationTree, Type lhs, Type rhs) {
         var operator = binaryOperationTree.operatorType();
 
         return switch (operator) {
@@ -160,7 +161,7 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(BlockTree blockTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(BlockTree blockTree, TypeContext scope) {
         scope.push();
 
         try {
@@ -195,22 +196,22 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(BooleanTree booleanTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(BooleanTree booleanTree, TypeContext scope) {
         return BOOL;
     }
 
     @Override
-    public Type visit(BreakTree breakTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(BreakTree breakTree, TypeContext scope) {
         return VOID;
     }
 
     @Override
-    public Type visit(ContinueTree continueTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(ContinueTree continueTree, TypeContext scope) {
         return VOID;
     }
 
     @Override
-    public Type visit(DeclarationTree declarationTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(DeclarationTree declarationTree, TypeContext scope) {
         Type declaredType = declarationTree.type().type();
         Name name = declarationTree.name().name();
 
@@ -225,13 +226,13 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
         }
 
         // Add variable after checking initializer - this ensures that the initializer cannot use the declared variable
-        scope.get().addVariable(name, declaredType);
+        scope.addVariable(name, declaredType);
 
         return VOID;
     }
 
     @Override
-    public Type visit(ForTree forTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(ForTree forTree, TypeContext scope) {
         scope.push();
 
         try {
@@ -260,7 +261,7 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(FunctionTree functionTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(FunctionTree functionTree, TypeContext scope) {
         var returnType = functionTree.returnType().type();
         var bodyType = visit(functionTree.body(), scope);
 
@@ -274,12 +275,12 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(IdentExpressionTree identExpressionTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
-        return scope.get().getVariableType(identExpressionTree.name().name());
+    public Type visit(IdentExpressionTree identExpressionTree, TypeContext scope) {
+        return scope.getVariableType(identExpressionTree.name().name());
     }
 
     @Override
-    public Type visit(IfTree ifTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(IfTree ifTree, TypeContext scope) {
         var conditionType = visit(ifTree.condition(), scope);
         if (conditionType != BOOL) {
             throw new SemanticException(ifTree,
@@ -309,29 +310,29 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(LiteralTree literalTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(LiteralTree literalTree, TypeContext scope) {
         var _ = (int) literalTree.parseValue().orElseThrow();
         return INT;
     }
 
     @Override
-    public Type visit(LValueIdentTree lValueIdentTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(LValueIdentTree lValueIdentTree, TypeContext scope) {
         return VOID;
     }
 
     @Override
-    public Type visit(NameTree nameTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
-        Type identType = scope.get().tryGetVariableType(nameTree.name());
+    public Type visit(NameTree nameTree, TypeContext scope) {
+        Type identType = scope.tryGetVariableType(nameTree.name());
         return identType == null ? VOID : identType;
     }
 
     @Override
-    public Type visit(ParameterTree parameterTree, ScopedContext<TypeContext> data) {
+    public Type visit(ParameterTree parameterTree, TypeContext data) {
         return VOID;
     }
 
     @Override
-    public Type visit(ProgramTree programTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(ProgramTree programTree, TypeContext scope) {
         for (FunctionTree topLevelTree : programTree.topLevelTrees()) {
             visit(topLevelTree, scope);
         }
@@ -339,22 +340,24 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(ReturnTree returnTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(ReturnTree returnTree, TypeContext scope) {
         return visit(returnTree.expression(), scope);
     }
 
     @Override
-    public Type visit(TernaryOperationTree ternaryOperationTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
-        var conditionType = visit(ternaryOperationTree.condition(), scope);
+    public Type visit(TernaryOperationTree ternaryOperationTree, TypeContext scope) {
+        return typeOperation(ternaryOperationTree, operand -> visit(operand, scope));
+    }
+
+    private static void checkTernaryCondition(Type conditionType) {
         if (conditionType != BOOL) {
             throw new SemanticException(
                 "Ternary operation condition must be of type boolean, but is " +
                     conditionType);
         }
+    }
 
-        var trueBranchType = visit(ternaryOperationTree.trueBranch(), scope);
-        var falseBranchType = visit(ternaryOperationTree.falseBranch(), scope);
-
+    private static Type ternaryType(Type trueBranchType, Type falseBranchType) {
         if (trueBranchType != falseBranchType) {
             throw new SemanticException(
                 "Ternary operation branches must have the same type, but got " +
@@ -365,13 +368,16 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
     }
 
     @Override
-    public Type visit(TypeTree typeTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(TypeTree typeTree, TypeContext scope) {
         return VOID;
     }
 
     @Override
-    public Type visit(UnaryOperationTree unaryOperationTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
-        var operandType = visit(unaryOperationTree.operand(), scope);
+    public Type visit(UnaryOperationTree unaryOperationTree, TypeContext scope) {
+        return typeOperation(unaryOperationTree, operand -> visit(operand, scope));
+    }
+
+    private static Type unaryType(UnaryOperationTree unaryOperationTree, Type operandType) {
         var operator = unaryOperationTree.operator();
 
         return switch (operator.type()) {
@@ -395,8 +401,86 @@ public class TypeAnalysis implements Visitor<ScopedContext<TypeAnalysis.TypeCont
         };
     }
 
+    /// Types an operation and the operations nested in it, keeping those on the path to the current operand on a
+    /// stack instead of recursing, so the depth of an expression is only bounded by the heap.
+    /// The operands are typed and checked in the same order as by the recursive `visit` methods.
+    /// @param operandType types the operands that are no operations
+    static Type typeOperation(ExpressionTree operation, Function<ExpressionTree, Type> operandType) {
+        Deque<PendingOperation> path = new ArrayDeque<>();
+        PendingOperation pending = new PendingOperation(operation);
+        while (true) {
+            ExpressionTree operand = pending.nextOperand();
+            if (operand instanceof BinaryOperationTree || operand instanceof TernaryOperationTree
+                || operand instanceof UnaryOperationTree) {
+                path.push(pending);
+                pending = new PendingOperation(operand);
+                continue;
+            }
+            Type type;
+            if (operand != null) {
+                type = operandType.apply(operand);
+            } else {
+                type = pending.type();
+                PendingOperation parent = path.poll();
+                if (parent == null) {
+                    return type;
+                }
+                pending = parent;
+            }
+            pending.add(type);
+        }
+    }
+
+    /// An operation whose operands are being typed.
+    private static final class PendingOperation {
+        private final ExpressionTree operation;
+        private final Type[] operands;
+        private int count;
+
+        PendingOperation(ExpressionTree operation) {
+            this.operation = operation;
+            this.operands = new Type[switch (operation) {
+                case UnaryOperationTree _ -> 1;
+                case TernaryOperationTree _ -> 3;
+                default -> 2;
+            }];
+        }
+
+        @Nullable ExpressionTree nextOperand() {
+            if (this.count == this.operands.length) {
+                return null;
+            }
+            return switch (this.operation) {
+                case BinaryOperationTree binary -> this.count == 0 ? binary.lhs() : binary.rhs();
+                case UnaryOperationTree unary -> unary.operand();
+                case TernaryOperationTree ternary -> switch (this.count) {
+                    case 0 -> ternary.condition();
+                    case 1 -> ternary.trueBranch();
+                    default -> ternary.falseBranch();
+                };
+                default -> throw new IllegalStateException("Not an operation: " + this.operation);
+            };
+        }
+
+        void add(Type type) {
+            if (this.count == 0 && this.operation instanceof TernaryOperationTree) {
+                checkTernaryCondition(type);
+            }
+            this.operands[this.count++] = type;
+        }
+
+        Type type() {
+            return switch (this.operation) {
+                case BinaryOperationTree binary -> binaryType(binary, this.operands[0], this.operands[1]);
+                case UnaryOperationTree unary -> unaryType(unary, this.operands[0]);
+                case TernaryOperationTree _ -> ternaryType(this.operands[1], this.operands[2]);
+                default -> throw new IllegalStateException("Not an operation: " + this.operation);
+            };
+        }
+    }
+
     @Override
-    public Type visit(WhileTree whileTree, ScopedContext<TypeAnalysis.TypeContext> scope) {
+    public Type visit(WhileTree whileTree, TypeContext scope) {
         var conditionType = visit(whileTree.condition(), scope);
         if (conditionType != BOOL) {
             throw new SemanticException(whileTree,
@@ -35,7 +35,7 @@ import org.jspecify.annotations.Nullable;
 /// - assigned before referenced
 class VariableStatusAnalysis implements AggregateVisitor<ScopedContext<Namespace<VariableStatusAnalysis.VariableStatus>>, Namespace<VariableStatusAnalysis.VariableStatus>> {
 
-    private final ReturnAnalysis returnAnalysis = new ReturnAnalysis(true);
+    private final ControlFlowFacts controlFlow = new ControlFlowFacts();
 
     @Override
     public Namespace<VariableStatusAnalysis.VariableStatus> visit(AssignmentTree assignmentTree, ScopedContext<Namespace<VariableStatus>> scope) {
@@ -95,8 +95,7 @@ class VariableStatusAnalysis implements AggregateVisitor<ScopedContext<Namespace
                 var newNames = visit(statement, scope);
                 aggregate(scope, newNames);
 
-                var statementReturns = this.returnAnalysis.visit(statement, new ReturnAnalysis.ReturnState());
-                if (statementReturns.returns) {
+                if (this.controlFlow.returnsContinuesOrBreaks(statement)) {
                     hasReturned = true;
                     namespaceBeforeReturned = scope.get().copy();
                 }
@@ -126,20 +125,20 @@ class VariableStatusAnalysis implements AggregateVisitor<ScopedContext<Namespace
         if (elseBlock != null) {
             var thenNamespace = this.visit(thenBlock, scope);
             List<Name> thenNames = thenNamespace.getAllWhere(status -> status == VariableStatus.INITIALIZED);
-            var thenReturns = this.returnAnalysis.visit(thenBlock, new ReturnAnalysis.ReturnState());
+            boolean thenReturns = this.controlFlow.returnsContinuesOrBreaks(thenBlock);
 
             var elseNamespace = this.visit(elseBlock, scope);
             List<Name> elseNames = elseNamespace.getAllWhere(status -> status == VariableStatus.INITIALIZED);
-            var elseReturns = this.returnAnalysis.visit(elseBlock, new ReturnAnalysis.ReturnState());
+            boolean elseReturns = this.controlFlow.returnsContinuesOrBreaks(elseBlock);
 
-            if (thenReturns.returns) {
-                if (!elseReturns.returns) {
+            if (thenReturns) {
+                if (!elseReturns) {
                     for (Name name : elseNames) {
                         ifNamespace.put(name, VariableStatus.INITIALIZED);
                     }
                 }
             } else {
-                if (elseReturns.returns) {
+                if (elseReturns) {
                     for (Name name : thenNames) {
                         ifNamespace.put(name, VariableStatus.INITIALIZED);
                     }
@@ -297,19 +296,19 @@ class VariableStatusAnalysis implements AggregateVisitor<ScopedContext<Namespace
 
     private static void checkDeclared(NameTree name, @Nullable VariableStatus status) {
         if (status == null) {
-            throw new VariableStatusException(name.name(), VariableStatus.DECLARED, "Variable " + name + " must be declared before assignment");
+            throw new VariableStatusException(name, VariableStatus.DECLARED, "Variable " + name.name().asString() + " must be declared before assignment");
         }
     }
 
     private static void checkInitialized(NameTree name, @Nullable VariableStatus status) {
         if (status == null || status == VariableStatus.DECLARED) {
-            throw new VariableStatusException(name.name(), VariableStatus.INITIALIZED, "Variable " + name + " must be initialized before use");
+            throw new VariableStatusException(name, VariableStatus.INITIALIZED, "Variable " + name.name().asString() + " must be initialized before use");
         }
     }
 
     private static void checkUndeclared(NameTree name, @Nullable VariableStatus status) {
         if (status != null) {
-            throw new VariableStatusException(name.name(), null, "Variable " + name + " is already declared");
+            throw new VariableStatusException(name, null, "Variable " + name.name().asString() + " is already declared");
         }
     }
 
@@ -341,5 +340,11 @@ class VariableStatusAnalysis implements AggregateVisitor<ScopedContext<Namespace
             this.variable = variable;
             this.expectedStatus = expectedStatus;
         }
+
+        public VariableStatusException(NameTree variable, VariableStatusAnalysis.@Nullable VariableStatus expectedStatus, String message) {
+            super(variable, message);
+            this.variable = variable.name();
+            this.expectedStatus = expectedStatus;
+        }
     }
 }
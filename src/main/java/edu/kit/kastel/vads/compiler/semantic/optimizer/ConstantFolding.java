@@ -0,0 +1,211 @@
+package edu.kit.kastel.vads.compiler.semantic.optimizer;
+
+import edu.kit.kastel.vads.compiler.lexer.tokens.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.BooleanTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.ExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.FunctionCallTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.TernaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.expression.operation.UnaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.StatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.IfTree;
+import edu.kit.kastel.vads.compiler.parser.ast.statement.control.WhileTree;
+import edu.kit.kastel.vads.compiler.parser.visitor.NodeReplacementVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/// Evaluates constant expressions with the wrap-around semantics of 32-bit integers,
+/// applies algebraic identities and removes branches and loops whose condition is constant.
+///
+/// Divisions and modulos are only evaluated if they cannot trap.
+/// Operands are only dropped if evaluating them cannot trap or call a function,
+/// the operations that might are remembered while the expressions are visited bottom-up.
+public class ConstantFolding implements NodeReplacementVisitor<Unit> {
+    private final Set<ExpressionTree> mightTrap = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @Override
+    public Tree visit(BinaryOperationTree binaryOperationTree, Unit data) {
+        ExpressionTree folded = fold(binaryOperationTree);
+        if (folded == binaryOperationTree) {
+            ExpressionTree lhs = binaryOperationTree.lhs();
+            ExpressionTree rhs = binaryOperationTree.rhs();
+            OperatorType operator = binaryOperationTree.operatorType();
+            boolean division = operator == OperatorType.DIV || operator == OperatorType.MOD;
+            if (mightTrap(lhs) || mightTrap(rhs) || division && !isSafeDivisor(rhs)) {
+                this.mightTrap.add(binaryOperationTree);
+            }
+        }
+        return folded;
+    }
+
+    private ExpressionTree fold(BinaryOperationTree binary) {
+        ExpressionTree lhs = binary.lhs();
+        ExpressionTree rhs = binary.rhs();
+        long span = binary.span();
+        if (lhs instanceof LiteralTree l && rhs instanceof LiteralTree r) {
+            int left = value(l);
+            int right = value(r);
+            return switch (binary.operatorType()) {
+                case PLUS -> literal(left + right, span);
+                case MINUS -> literal(left - right, span);
+                case MUL -> literal(left * right, span);
+                // x86 traps on both, the division is left to run
+                case DIV -> isSafeDivision(left, right) ? literal(left / right, span) : binary;
+                case MOD -> isSafeDivision(left, right) ? literal(left % right, span) : binary;
+                // like the generated shifts, only the lowest five bits of the shift amount count
+                case SHIFT_LEFT -> literal(left << right, span);
+                case SHIFT_RIGHT -> literal(left >> right, span);
+                case BITWISE_AND -> literal(left & right, span);
+                case BITWISE_OR -> literal(left | right, span);
+                case BITWISE_XOR -> literal(left ^ right, span);
+                case LESS -> new BooleanTree(left < right, span);
+                case LESS_EQUAL -> new BooleanTree(left <= right, span);
+                case GREATER -> new BooleanTree(left > right, span);
+                case GREATER_EQUAL -> new BooleanTree(left >= right, span);
+                case EQUAL -> new BooleanTree(left == right, span);
+                case NOT_EQUAL -> new BooleanTree(left != right, span);
+                default -> binary;
+            };
+        }
+        // && and || are already lowered to ternaries by ShortCircuitEvaluation
+        if (lhs instanceof BooleanTree(boolean left, _) && rhs instanceof BooleanTree(boolean right, _)) {
+            return switch (binary.operatorType()) {
+                case EQUAL -> new BooleanTree(left == right, span);
+                case NOT_EQUAL -> new BooleanTree(left != right, span);
+                default -> binary;
+            };
+        }
+        @Nullable Integer left = lhs instanceof LiteralTree l ? value(l) : null;
+        @Nullable Integer right = rhs instanceof LiteralTree r ? value(r) : null;
+        return switch (binary.operatorType()) {
+            case PLUS -> isValue(right, 0) ? lhs : isValue(left, 0) ? rhs : binary;
+            case MINUS -> isValue(right, 0) ? lhs : isSameVariable(lhs, rhs) ? literal(0, span) : binary;
+            case MUL -> isValue(right, 1) ? lhs
+                : isValue(left, 1) ? rhs
+                : isValue(right, 0) && !mightTrap(lhs) || isValue(left, 0) && !mightTrap(rhs) ? literal(0, span)
+                : binary;
+            case DIV -> isValue(right, 1) ? lhs : binary;
+            case SHIFT_LEFT, SHIFT_RIGHT -> right != null && (right & 31) == 0 ? lhs : binary;
+            case BITWISE_AND -> isValue(right, -1) ? lhs
+                : isValue(left, -1) ? rhs
+                : isValue(right, 0) && !mightTrap(lhs) || isValue(left, 0) && !mightTrap(rhs) ? literal(0, span)
+                : binary;
+            case BITWISE_OR -> isValue(right, 0) ? lhs : isValue(left, 0) ? rhs : binary;
+            case BITWISE_XOR -> isValue(right, 0) ? lhs
+                : isValue(left, 0) ? rhs
+                : isSameVariable(lhs, rhs) ? literal(0, span)
+                : binary;
+            default -> binary;
+        };
+    }
+
+    @Override
+    public Tree visit(UnaryOperationTree unaryOperationTree, Unit data) {
+        ExpressionTree operand = unaryOperationTree.operand();
+        long span = unaryOperationTree.span();
+        ExpressionTree folded = switch (unaryOperationTree.operator().type()) {
+            case NOT -> operand instanceof BooleanTree(boolean value, _) ? new BooleanTree(!value, span) : null;
+            case BITWISE_NOT -> operand instanceof LiteralTree literal ? literal(~value(literal), span) : null;
+            case UNARY_MINUS -> operand instanceof LiteralTree literal ? literal(-value(literal), span) : null;
+            default -> null;
+        };
+        if (folded != null) {
+            return folded;
+        }
+        if (mightTrap(operand)) {
+            this.mightTrap.add(unaryOperationTree);
+        }
+        return unaryOperationTree;
+    }
+
+    @Override
+    public Tree visit(TernaryOperationTree ternaryOperationTree, Unit data) {
+        if (ternaryOperationTree.condition() instanceof BooleanTree(boolean value, _)) {
+            // the other branch is never evaluated
+            return value ? ternaryOperationTree.trueBranch() : ternaryOperationTree.falseBranch();
+        }
+        if (mightTrap(ternaryOperationTree.condition()) || mightTrap(ternaryOperationTree.trueBranch())
+            || mightTrap(ternaryOperationTree.falseBranch())) {
+            this.mightTrap.add(ternaryOperationTree);
+        }
+        return ternaryOperationTree;
+    }
+
+    @Override
+    public Tree visit(IfTree ifTree, Unit data) {
+        if (!(ifTree.condition() instanceof BooleanTree(boolean value, _))) {
+            return ifTree;
+        }
+        StatementTree taken = value ? ifTree.thenBlock() : ifTree.elseBlock();
+        if (taken == null) {
+            return new BlockTree(List.of(), ifTree.span());
+        }
+        // a declaration must not end up in the scope of the if
+        return taken instanceof DeclarationTree ? ifTree : taken;
+    }
+
+    @Override
+    public Tree visit(WhileTree whileTree, Unit data) {
+        if (whileTree.condition() instanceof BooleanTree(boolean value, _) && !value) {
+            return new BlockTree(List.of(), whileTree.span());
+        }
+        return whileTree;
+    }
+
+    @Override
+    public Tree visit(BlockTree blockTree, Unit data) {
+        // removes the branches and loops folded away
+        if (blockTree.statements().stream().noneMatch(ConstantFolding::isEmptyBlock)) {
+            return blockTree;
+        }
+        return new BlockTree(
+            blockTree.statements().stream().filter(statement -> !isEmptyBlock(statement)).toList(),
+            blockTree.span());
+    }
+
+    private boolean mightTrap(ExpressionTree expression) {
+        return expression instanceof FunctionCallTree || this.mightTrap.contains(expression);
+    }
+
+    private static boolean isEmptyBlock(StatementTree statement) {
+        return statement instanceof BlockTree block && block.statements().isEmpty();
+    }
+
+    private static boolean isSafeDivisor(ExpressionTree divisor) {
+        return divisor instanceof LiteralTree literal && value(literal) != 0 && value(literal) != -1;
+    }
+
+    private static boolean isSafeDivision(int dividend, int divisor) {
+        return divisor != 0 && !(dividend == Integer.MIN_VALUE && divisor == -1);
+    }
+
+    private static boolean isValue(@Nullable Integer literal, int value) {
+        return literal != null && literal == value;
+    }
+
+    private static boolean isSameVariable(ExpressionTree lhs, ExpressionTree rhs) {
+        return lhs instanceof IdentExpressionTree left && rhs instanceof IdentExpressionTree right
+            && left.name().name().equals(right.name().name());
+    }
+
+    private static int value(LiteralTree literal) {
+        return (int) literal.parseValue().orElseThrow();
+    }
+
+    /// {@return a literal of the value, in hexadecimal if it is negative, as literals cannot be}
+    private static LiteralTree literal(int value, long span) {
+        if (value < 0) {
+            return new LiteralTree("0x" + Integer.toHexString(value), 16, span);
+        }
+        return new LiteralTree(Integer.toString(value), 10, span);
+    }
+}
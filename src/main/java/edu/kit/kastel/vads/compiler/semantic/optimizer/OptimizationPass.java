@@ -0,0 +1,37 @@
+package edu.kit.kastel.vads.compiler.semantic.optimizer;
+
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.visitor.NodeReplacementVisitor;
+import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/// An optimization of single functions, run by a [PassManager].
+/// @param name the name of the pass, as timed and as other passes depend on it
+/// @param optimization optimizes a function in place and tells whether it changed anything
+/// @param dependencies the names of the passes that have to run before this one
+record OptimizationPass(String name, Predicate<FunctionTree> optimization, List<String> dependencies) {
+
+    OptimizationPass {
+        dependencies = List.copyOf(dependencies);
+    }
+
+    /// {@return a pass replacing trees with a fresh visitor for every function}
+    static OptimizationPass replacing(
+        String name, Supplier<? extends NodeReplacementVisitor<Unit>> visitor, String... dependencies
+    ) {
+        return new OptimizationPass(name, function -> {
+            boolean[] changed = {false};
+            if (visitor.get().replace(function, Unit.INSTANCE, () -> changed[0] = true) != function) {
+                throw new IllegalStateException(name + " replaced function " + function.name().name().asString());
+            }
+            return changed[0];
+        }, List.of(dependencies));
+    }
+
+    /// {@return whether the pass changed the function}
+    boolean run(FunctionTree function) {
+        return this.optimization.test(function);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.kit.kastel.vads.compiler.semantic.optimizer;
+
+import edu.kit.kastel.vads.compiler.Timings;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/// Runs [OptimizationPass]es on every function until none of them changes it anymore.
+///
+/// The passes run in the order they were added in, except that every pass runs after its dependencies.
+/// After a pass changed a function, all passes run on that function again,
+/// functions no pass changed are not visited again.
+final class PassManager {
+    // every pass shrinks the tree in some way, this only guards against passes undoing each other
+    private static final int MAX_ROUNDS = 16;
+
+    private final Timings timings;
+    private final Map<String, OptimizationPass> passes = new LinkedHashMap<>();
+
+    PassManager(Timings timings) {
+        this.timings = timings;
+    }
+
+    PassManager add(OptimizationPass pass) {
+        if (this.passes.putIfAbsent(pass.name(), pass) != null) {
+            throw new IllegalArgumentException("Pass " + pass.name() + " is added twice");
+        }
+        return this;
+    }
+
+    /// Optimizes the functions of the program.
+    void run(ProgramTree program) {
+        List<OptimizationPass> order = order();
+        for (FunctionTree function : program.topLevelTrees()) {
+            String name = function.name().name().asString();
+            boolean changed = true;
+            for (int round = 0; changed && round < MAX_ROUNDS; round++) {
+                changed = false;
+                for (OptimizationPass pass : order) {
+                    changed |= this.timings.time(pass.name(), name, () -> pass.run(function));
+                }
+            }
+        }
+    }
+
+    /// {@return the passes in the order they were added in, each moved behind its dependencies}
+    private List<OptimizationPass> order() {
+        Set<OptimizationPass> ordered = new LinkedHashSet<>();
+        Set<OptimizationPass> visiting = new LinkedHashSet<>();
+        for (OptimizationPass pass : this.passes.values()) {
+            order(pass, ordered, visiting);
+        }
+        return List.copyOf(ordered);
+    }
+
+    private void order(OptimizationPass pass, Set<OptimizationPass> ordered, Set<OptimizationPass> visiting) {
+        if (ordered.contains(pass)) {
+            return;
+        }
+        if (!visiting.add(pass)) {
+            throw new IllegalStateException("Pass " + pass.name() + " depends on itself");
+        }
+        for (String dependency : pass.dependencies()) {
+            OptimizationPass required = this.passes.get(dependency);
+            if (required == null) {
+                throw new IllegalStateException("Pass " + pass.name() + " depends on unknown pass " + dependency);
+            }
+            order(required, ordered, visiting);
+        }
+        visiting.remove(pass);
+        ordered.add(pass);
+    }
+}
@@ -10,10 +10,14 @@ import edu.kit.kastel.vads.compiler.parser.ast.statement.control.BreakTree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.control.ContinueTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.AggregateVisitor;
 import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
-import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.analysis.ControlFlowFacts;
 import java.util.List;
 
 public class RemoveDeadCode implements AggregateVisitor<Unit, Unit> {
+    // a statement is only asked for once its subtree is final, the enclosing blocks are asked for later
+    private final ControlFlowFacts controlFlow = new ControlFlowFacts();
+    private boolean changed;
+
     @Override
     public Unit visit(BlockTree blockTree, Unit data) {
         List<StatementTree> statements = blockTree.statements();
@@ -23,17 +27,24 @@ public class RemoveDeadCode implements AggregateVisitor<Unit, Unit> {
             // Recursively visit other statements
             statement.accept(this, data);
 
-            if (SemanticAnalysis.containsReturnContinueBreak(statement)) {
+            if (this.controlFlow.returnsContinuesOrBreaks(statement)) {
                 // Remove remaining statements after a returning statement
                 while (i + 1 < statements.size()) {
                     blockTree.removeStatement(i + 1);
+                    this.changed = true;
                 }
+                this.controlFlow.invalidate(blockTree);
             }
         }
 
         return Unit.INSTANCE;
     }
 
+    /// {@return whether any statement was removed}
+    public boolean changed() {
+        return this.changed;
+    }
+
     @Override
     public Unit visit(BooleanTree booleanTree, Unit data) {
         return Unit.INSTANCE;
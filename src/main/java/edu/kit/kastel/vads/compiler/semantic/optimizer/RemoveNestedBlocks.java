@@ -11,9 +11,10 @@ public class RemoveNestedBlocks implements NodeReplacementVisitor<Unit> {
     public Tree visit(BlockTree blockTree, Unit data) {
         // If the block has only one child and that child is also a block,
         // we can remove the outer block and return the inner block's content.
+        // The inner block has been visited already.
         if (blockTree.statements().size() == 1 &&
             blockTree.statements().getFirst() instanceof BlockTree innerBlock) {
-            return visit(innerBlock, data);
+            return innerBlock;
         }
         return blockTree;
     }
@@ -13,8 +13,8 @@ public class RemoveNotNot implements NodeReplacementVisitor<Unit> {
             var inner = unaryOperationTree.operand();
             if (inner instanceof UnaryOperationTree innerUnaryOperationTree &&
                 innerUnaryOperationTree.operator().isOperator(Operator.OperatorType.NOT)) {
-                // Remove double negation
-                return visit(innerUnaryOperationTree.operand(), data);
+                // Remove double negation, the operand has been visited already
+                return innerUnaryOperationTree.operand();
             }
         }
 
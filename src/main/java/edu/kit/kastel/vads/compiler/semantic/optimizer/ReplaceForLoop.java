@@ -1,5 +1,6 @@
 package edu.kit.kastel.vads.compiler.semantic.optimizer;
 
+import edu.kit.kastel.vads.compiler.Span;
 import edu.kit.kastel.vads.compiler.lexer.tokens.Keyword;
 import edu.kit.kastel.vads.compiler.parser.ast.Tree;
 import edu.kit.kastel.vads.compiler.parser.ast.statement.BlockTree;
@@ -17,15 +18,16 @@ public class ReplaceForLoop implements NodeReplacementVisitor<Unit> {
         // Replace ForTree with WhileTree in the block
         StatementTree update = forTree.update();
 
-        StatementTree body = (StatementTree) visit(forTree.body(), data);
+        // Loops nested in the body have been replaced already
+        StatementTree body = forTree.body();
         if (update != null) {
             if (body instanceof BlockTree bodyBlockTree) {
                 bodyBlockTree.addStatement(update);
             } else {
-                body = new BlockTree(List.of(body, update), body.span().merge(update.span()));
+                body = new BlockTree(List.of(body, update), Span.merge(body.span(), update.span()));
             }
 
-            new AddStatementBeforeContinue(update).visit(body, data);
+            body = (StatementTree) new AddStatementBeforeContinue(update).replace(body, data);
         }
 
         var whileTree = new WhileTree(
@@ -36,7 +38,7 @@ public class ReplaceForLoop implements NodeReplacementVisitor<Unit> {
         StatementTree transformedTree;
         var init = forTree.init();
         if (init != null) {
-            transformedTree = new BlockTree(List.of(init, whileTree), init.span().merge(whileTree.span()));
+            transformedTree = new BlockTree(List.of(init, whileTree), Span.merge(init.span(), whileTree.span()));
         } else {
             transformedTree = whileTree;
         }
@@ -52,15 +54,9 @@ public class ReplaceForLoop implements NodeReplacementVisitor<Unit> {
         }
 
         @Override
-        public Tree visit(ForTree forTree, Unit data) {
-            // Skip tree so we only add the update statement to continues inside our loop and not the nested ones
-            return forTree;
-        }
-
-        @Override
-        public Tree visit(WhileTree whileTree, Unit data) {
-            // Skip tree so we only add the update statement to continues inside our loop and not the nested ones
-            return whileTree;
+        public boolean descend(Tree tree, Unit data) {
+            // Skip loops so we only add the update statement to continues inside our loop and not the nested ones
+            return !(tree instanceof ForTree || tree instanceof WhileTree);
         }
 
         @Override
@@ -68,7 +64,7 @@ public class ReplaceForLoop implements NodeReplacementVisitor<Unit> {
             // Add the update statement before the continue statement
             return new BlockTree(
                 List.of(update, continueTree),
-                continueTree.span().merge(update.span()));
+                Span.merge(continueTree.span(), update.span()));
         }
     }
 }
@@ -18,6 +18,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ReplaceWhileWithOneLoop implements AggregateVisitor<Integer, Integer> {
+    private boolean changed;
+
     @Override
     public Integer visit(BlockTree blockTree, Integer data) {
         List<StatementTree> blockStatements = blockTree.statements();
@@ -35,10 +37,10 @@ public class ReplaceWhileWithOneLoop implements AggregateVisitor<Integer, Intege
                             var innerStatement = whileBlock.statements().get(j);
                             // If we break directly, we can remove the while loop and instead create an empty if tree
                             if (innerStatement instanceof BreakTree) {
-                                blockTree.setStatement(i, getIfTree(whileTree, whileBlock.statements().subList(0, j)));
+                                replace(blockTree, i, getIfTree(whileTree, whileBlock.statements().subList(0, j)));
                                 break;
                             } else if (innerStatement instanceof ReturnTree) {
-                                blockTree.setStatement(i, getIfTree(whileTree, whileBlock.statements()));
+                                replace(blockTree, i, getIfTree(whileTree, whileBlock.statements()));
                                 break;
                             }
                         }
@@ -47,9 +49,9 @@ public class ReplaceWhileWithOneLoop implements AggregateVisitor<Integer, Intege
                         switch (controlTree) {
                             // If we return or break directly, we can remove the while loop and instead create an empty if tree
                             case BreakTree _ ->
-                                blockTree.setStatement(i, getIfTree(whileTree, List.of()));
+                                replace(blockTree, i, getIfTree(whileTree, List.of()));
                             case ReturnTree returnTree ->
-                                blockTree.setStatement(i, getIfTree(whileTree, List.of(returnTree)));
+                                replace(blockTree, i, getIfTree(whileTree, List.of(returnTree)));
                             default -> {
                                 // Ignore
                             }
@@ -69,6 +71,16 @@ public class ReplaceWhileWithOneLoop implements AggregateVisitor<Integer, Intege
             .orElse(0);
     }
 
+    /// {@return whether any loop was replaced}
+    public boolean changed() {
+        return this.changed;
+    }
+
+    private void replace(BlockTree blockTree, int index, IfTree ifTree) {
+        blockTree.setStatement(index, ifTree);
+        this.changed = true;
+    }
+
     private static IfTree getIfTree(WhileTree whileTree, List<StatementTree> bodyStatements) {
         return new IfTree(
             new Keyword(Keyword.KeywordType.IF, whileTree.whileKeyword().span()),
@@ -1,28 +1,40 @@
 package edu.kit.kastel.vads.compiler.semantic.optimizer;
 
+import edu.kit.kastel.vads.compiler.Timings;
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
 import edu.kit.kastel.vads.compiler.parser.visitor.Unit;
+import java.util.List;
 
 public class SemanticOptimization {
 
     private final ProgramTree program;
+    private final Timings timings;
 
-    public SemanticOptimization(ProgramTree program) {
+    public SemanticOptimization(ProgramTree program, Timings timings) {
         this.program = program;
+        this.timings = timings;
     }
 
     public void optimize() {
-        this.program.accept(new RemoveNotNot(), Unit.INSTANCE);
-        this.program.accept(new RemoveNestedBlocks(), Unit.INSTANCE);
-
-        this.program.accept(new ReplaceForLoop(), Unit.INSTANCE);
-        this.program.accept(new ShortCircuitEvaluation(), Unit.INSTANCE);
-
-        // Should be after ReplaceForLoop to remove dead code that might be created
-        this.program.accept(new RemoveDeadCode(), Unit.INSTANCE);
-
-        // Should be after ReplaceForLoop and after RemoveDeadCode
-        this.program.accept(new ReplaceWhileWithOneLoop(), 0);
+        new PassManager(this.timings)
+            .add(OptimizationPass.replacing("RemoveNotNot", RemoveNotNot::new))
+            .add(OptimizationPass.replacing("RemoveNestedBlocks", RemoveNestedBlocks::new))
+            .add(OptimizationPass.replacing("ReplaceForLoop", ReplaceForLoop::new))
+            .add(OptimizationPass.replacing("ShortCircuitEvaluation", ShortCircuitEvaluation::new))
+            // only folds the ternaries && and || are lowered to
+            .add(OptimizationPass.replacing("ConstantFolding", ConstantFolding::new, "ShortCircuitEvaluation"))
+            // removes the dead code the replaced for loops might contain
+            .add(new OptimizationPass("RemoveDeadCode", function -> {
+                RemoveDeadCode removeDeadCode = new RemoveDeadCode();
+                function.accept(removeDeadCode, Unit.INSTANCE);
+                return removeDeadCode.changed();
+            }, List.of("ReplaceForLoop")))
+            .add(new OptimizationPass("ReplaceWhileWithOneLoop", function -> {
+                ReplaceWhileWithOneLoop replaceWhile = new ReplaceWhileWithOneLoop();
+                function.accept(replaceWhile, 0);
+                return replaceWhile.changed();
+            }, List.of("ReplaceForLoop", "RemoveDeadCode")))
+            .run(this.program);
     }
 
 }
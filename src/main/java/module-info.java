@@ -5,4 +5,8 @@ module edu.kit.kastel.vads.compiler {
     requires org.jspecify;
     requires java.xml;
   requires java.logging;
+    requires jdk.jfr;
+    requires jdk.management;
+    // optional, only used when added with --add-modules
+    requires static jdk.incubator.vector;
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package edu.kit.kastel.vads.compiler.backend.aasm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import edu.kit.kastel.vads.compiler.Compilation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/// Compiles and runs programs whose nodes are easily ordered wrong within their block.
+///
+/// The loops keep the values from being constant, and the long chains of operations
+/// make sure a wrong order shows up independently of how the nodes happen to be hashed.
+class NodeOrderGeneratorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void computesValuesOfSuccessorBlocksBeforeBranching() throws IOException, InterruptedException {
+        // x is only used by the then block and takes longer to compute than the condition
+        assertEquals(364 & 0xFF, run("""
+            int main() {
+                int a = 0;
+                while (a < 3) {
+                    a += 1;
+                }
+                int x = ((a * 3 + 1) * 5 + 2) * 7;
+                if (a == 3) {
+                    return x;
+                }
+                return 0;
+            }
+            """));
+    }
+
+    @Test
+    void computesProjectedValuesBeforeAllTheirUsers() throws IOException, InterruptedException {
+        // r, s and t all use the result of the division, which reaches them through a projection
+        assertEquals((26 * 27 + 28) & 0xFF, run("""
+            int main() {
+                int a = 0;
+                while (a < 3) {
+                    a += 1;
+                }
+                int q = ((a * 3 + 1) * 5) / 2;
+                int r = q + 1;
+                int s = q + 2;
+                int t = q + 3;
+                return r * s + t;
+            }
+            """));
+    }
+
+    private int run(String program) throws IOException, InterruptedException {
+        assumeTrue(System.getProperty("os.name").equals("Linux") && System.getProperty("os.arch").equals("amd64"),
+            "the generated binaries only run on x86-64 Linux");
+        Path source = this.directory.resolve("program.l2");
+        Path binary = this.directory.resolve("program");
+        Files.writeString(source, program);
+        assertEquals(Compilation.SUCCESS, new Compilation(source, binary).run());
+        Process process = new ProcessBuilder(binary.toString()).inheritIO().start();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            fail("The program did not terminate");
+        }
+        return process.exitValue();
+    }
+}
@@ -0,0 +1,148 @@
+package edu.kit.kastel.vads.compiler.backend.compiler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import edu.kit.kastel.vads.compiler.backend.compiler.X86Assembler.UnsupportedAssemblyException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/// Compares the machine code of the built-in assembler with the one of gas,
+/// for every form of instruction the code generator emits.
+class X86AssemblerTest {
+  private static final List<String> REGISTERS = List.of(
+      "%eax", "%ecx", "%edx", "%ebx", "%esp", "%ebp", "%esi", "%edi",
+      "%r8d", "%r9d", "%r10d", "%r11d", "%r12d", "%r13d", "%r14d", "%r15d");
+  private static final List<String> BYTE_REGISTERS = List.of(
+      "%al", "%cl", "%dl", "%bl", "%spl", "%bpl", "%sil", "%dil", "%r8b", "%r12b", "%r15b");
+  // the code generator addresses stack slots relative to rsp
+  private static final List<String> STACK_SLOTS = List.of("0(%rsp)", "8(%rsp)", "124(%rsp)", "128(%rsp)", "4096(%rsp)");
+  private static final List<String> IMMEDIATES = List.of(
+      "$0", "$1", "$-1", "$127", "$128", "$-128", "$-129", "$0x3C", "$2147483647", "$-2147483648");
+  private static final List<String> CONDITIONS = List.of("e", "ne", "l", "le", "g", "ge");
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void encodesInstructionsLikeGas() throws IOException, InterruptedException {
+    List<String> forms = codeGeneratorForms();
+    byte[] expected = assembleWithGas(String.join("\n", forms));
+    int offset = 0;
+    for (String form : forms) {
+      byte[] actual = X86Assembler.assemble(form).code();
+      int end = Math.min(offset + actual.length, expected.length);
+      assertArrayEquals(Arrays.copyOfRange(expected, offset, end), actual, form);
+      offset = end;
+    }
+    assertEquals(expected.length, offset, "size of all instructions");
+  }
+
+  @Test
+  void encodesJumpsLikeGas() throws IOException, InterruptedException {
+    // gas only uses 32 bit displacements for targets out of reach of 8 bit ones
+    String padding = "movl $100000, %eax\n".repeat(40);
+    String assembly = "backward:\n" + padding
+        + "jmp backward\nje backward\ncall backward\n"
+        + "jmp forward\njne forward\ncall forward\n"
+        + padding + "forward:\nret\n";
+    assertArrayEquals(assembleWithGas(assembly), X86Assembler.assemble(assembly).code(), "jumps");
+  }
+
+  @Test
+  void rejectsOperationsOnBytes() {
+    for (String instruction : List.of("mov %al, %bl", "movb %al, %bl", "add %cl, %dl", "cmp $1, %al",
+        "not %sil", "sall %cl, %al", "idiv %r8b")) {
+      assertThrows(UnsupportedAssemblyException.class, () -> X86Assembler.assemble(instruction), instruction);
+    }
+  }
+
+  @Test
+  void rejectsMismatchedOperandSizes() {
+    for (String instruction : List.of("mov %eax, %rbx", "add %rax, %ecx", "movl %eax, %rbx", "movq %eax, %ebx",
+        "movl %rax, 8(%rsp)", "sarq %cl, %eax", "mov $1, 8(%rsp)", "movzx %eax, %ebx", "sete %eax")) {
+      assertThrows(UnsupportedAssemblyException.class, () -> X86Assembler.assemble(instruction), instruction);
+    }
+  }
+
+  private static List<String> codeGeneratorForms() {
+    List<String> forms = new ArrayList<>(List.of("cdq", "cltd", "ret", "syscall"));
+    for (String immediate : List.of("$8", "$128", "$4096")) {
+      forms.add("sub " + immediate + ", %rsp");
+      forms.add("add " + immediate + ", %rsp");
+    }
+    for (String destination : REGISTERS) {
+      for (String source : REGISTERS) {
+        for (String mnemonic : List.of("mov", "movl", "add", "sub", "and", "or", "xor", "cmpl", "imul")) {
+          forms.add(mnemonic + " " + source + ", " + destination);
+        }
+      }
+      for (String slot : STACK_SLOTS) {
+        forms.add("movl " + slot + ", " + destination);
+        forms.add("movl " + destination + ", " + slot);
+      }
+      for (String immediate : IMMEDIATES) {
+        forms.add("movl " + immediate + ", " + destination);
+        forms.add("mov " + immediate + ", " + destination);
+        forms.add("cmpl " + immediate + ", " + destination);
+        forms.add("add " + immediate + ", " + destination);
+      }
+      for (String mnemonic : List.of("idivl", "mull", "negl", "not")) {
+        forms.add(mnemonic + " " + destination);
+      }
+      forms.add("sall %cl, " + destination);
+      forms.add("sarl %cl, " + destination);
+      for (String source : BYTE_REGISTERS) {
+        forms.add("movzx " + source + ", " + destination);
+      }
+    }
+    for (String slot : STACK_SLOTS) {
+      for (String immediate : IMMEDIATES) {
+        forms.add("movl " + immediate + ", " + slot);
+        forms.add("cmpl " + immediate + ", " + slot);
+      }
+    }
+    for (String condition : CONDITIONS) {
+      for (String register : BYTE_REGISTERS) {
+        forms.add("set" + condition + " " + register);
+      }
+    }
+    return forms;
+  }
+
+  private byte[] assembleWithGas(String assembly) throws IOException, InterruptedException {
+    assumeTrue(isInstalled("as") && isInstalled("objcopy"), "binutils are not installed");
+    Path source = this.directory.resolve("forms.s");
+    Path object = this.directory.resolve("forms.o");
+    Path text = this.directory.resolve("forms.bin");
+    Files.writeString(source, assembly + "\n");
+    run("as", "--64", "-o", object.toString(), source.toString());
+    run("objcopy", "-O", "binary", "--only-section=.text", object.toString(), text.toString());
+    return Files.readAllBytes(text);
+  }
+
+  private static void run(String... command) throws IOException, InterruptedException {
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    assertEquals(0, process.waitFor(), () -> String.join(" ", command) + " failed:\n" + output);
+  }
+
+  private static boolean isInstalled(String tool) throws InterruptedException {
+    try {
+      Process process = new ProcessBuilder(tool, "--version").redirectErrorStream(true).start();
+      process.getInputStream().readAllBytes();
+      return process.waitFor() == 0;
+    } catch (IOException _) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,270 @@
+package edu.kit.kastel.vads.compiler.semantic.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.kit.kastel.vads.compiler.Timings;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.ParseException;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+/// Compares the [FusedAnalysis] with the analyses it fuses on generated programs and mutations of them.
+///
+/// The fused analysis may reject programs the separate analyses accept, they then run anyway,
+/// but it must never accept a program one of them rejects.
+class FusedAnalysisTest {
+    private static final int PROGRAMS = 400;
+    private static final int MUTATIONS = 12;
+    private static final Pattern IDENTIFIER = Pattern.compile("\\bv\\d+\\b");
+    private static final Pattern TYPE = Pattern.compile("\\b(int|bool)\\b");
+    private static final Pattern LITERAL = Pattern.compile("\\b(\\d+|0x[0-9A-Fa-f]+)\\b");
+    private static final Pattern INITIALIZER = Pattern.compile("^(\\s*(int|bool) v\\d+) = [^;]*;");
+    private static final Pattern OPERATOR = Pattern.compile(" (\\+|-|\\*|/|%|<<|>>|&|\\||\\^|<|<=|>|>=|==|!=|&&|\\|\\|) ");
+    private static final String[] STATEMENTS = {"break;", "continue;", "return 0;", "return true;", "int v0 = 1;",
+        "bool v1;", "v2 = v3;", "v0 += 1;", "{ int v9 = 2; }", "int u = u;"};
+    private static final String[] LITERALS = {"true", "false", "0", "2147483647", "2147483648", "-2147483648",
+        "0x0", "0xFFFFFFFF", "0x100000000", "00", "v0"};
+    private static final String[] OPERATORS = {"+", "/", "<<", "&", "&&", "||", "<", "==", "!="};
+
+    @Test
+    void neverAcceptsWhatTheSeparateAnalysesReject() {
+        int rejected = 0;
+        int accepted = 0;
+        for (int seed = 0; seed < PROGRAMS; seed++) {
+            Random random = new Random(seed);
+            String program = ProgramGenerator.generate(random);
+            List<String> variants = new ArrayList<>(List.of(program));
+            for (int i = 0; i < MUTATIONS; i++) {
+                variants.add(mutate(program, random));
+            }
+            for (String variant : variants) {
+                @Nullable Boolean valid = analyzeSeparately(variant);
+                if (valid == null) {
+                    continue;
+                }
+                if (valid) {
+                    accepted++;
+                } else {
+                    rejected++;
+                    assertFalse(new FusedAnalysis().accepts(parse(variant)),
+                        () -> "accepted a program the separate analyses reject:\n" + variant);
+                }
+            }
+        }
+        // make sure the generated programs exercise both outcomes
+        assertTrue(rejected > PROGRAMS, "only " + rejected + " programs were rejected");
+        assertTrue(accepted > PROGRAMS / 4, "only " + accepted + " programs were accepted");
+    }
+
+    /// {@return whether the separate analyses accept the program, or `null` if it does not parse}
+    private static @Nullable Boolean analyzeSeparately(String source) {
+        ProgramTree program;
+        try {
+            program = parse(source);
+        } catch (ParseException _) {
+            return null;
+        }
+        try {
+            new SemanticAnalysis(program, Timings.of(source)).analyzeSeparately();
+            return true;
+        } catch (SemanticException _) {
+            return false;
+        }
+    }
+
+    private static ProgramTree parse(String source) {
+        return new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+    }
+
+    /// Applies a single small change to the program that is likely to break one of the rules.
+    private static String mutate(String program, Random random) {
+        List<String> lines = new ArrayList<>(program.lines().toList());
+        // the first and the last line are the head and the end of main
+        int line = 1 + random.nextInt(lines.size() - 2);
+        String text = lines.get(line);
+        switch (random.nextInt(9)) {
+            case 0 -> lines.remove(line);
+            case 1 -> lines.add(line, text);
+            case 2 -> lines.add(line, STATEMENTS[random.nextInt(STATEMENTS.length)]);
+            case 3 -> lines.set(line, replaceAny(text, IDENTIFIER, "v" + random.nextInt(12), random));
+            case 4 -> lines.set(line, replaceAny(text, TYPE, random.nextBoolean() ? "int" : "bool", random));
+            case 5 -> lines.set(line, replaceAny(text, LITERAL, LITERALS[random.nextInt(LITERALS.length)], random));
+            case 6 -> lines.set(line, INITIALIZER.matcher(text).replaceFirst("$1;"));
+            case 7 -> lines.set(line, replaceAny(text, OPERATOR,
+                " " + OPERATORS[random.nextInt(OPERATORS.length)] + " ", random));
+            default -> {
+                // a branch or loop without braces around a single statement
+                String head = random.nextBoolean() ? "if (true) " : "while (false) ";
+                lines.set(line, text.endsWith(";") ? head + text.strip() : head + "{}");
+            }
+        }
+        return String.join("\n", lines) + "\n";
+    }
+
+    private static String replaceAny(String text, Pattern pattern, String replacement, Random random) {
+        List<int[]> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            matches.add(new int[] {matcher.start(), matcher.end()});
+        }
+        if (matches.isEmpty()) {
+            return text;
+        }
+        int[] match = matches.get(random.nextInt(matches.size()));
+        return text.substring(0, match[0]) + replacement + text.substring(match[1]);
+    }
+
+    /// Generates mostly valid programs with one statement per line,
+    /// using the variables in scope with their types and only the initialized ones in expressions.
+    private static final class ProgramGenerator {
+        private final Random random;
+        private final StringBuilder builder = new StringBuilder();
+        private final List<Variable> scope = new ArrayList<>();
+        private int nextVariable;
+        private int nextCounter;
+
+        private record Variable(String name, boolean bool, boolean initialized) {
+        }
+
+        private ProgramGenerator(Random random) {
+            this.random = random;
+        }
+
+        static String generate(Random random) {
+            ProgramGenerator generator = new ProgramGenerator(random);
+            generator.builder.append("int main() {\n");
+            generator.statements(2 + random.nextInt(10), 3);
+            generator.builder.append("return ").append(generator.intExpression(2)).append(";\n}\n");
+            return generator.builder.toString();
+        }
+
+        private void statements(int count, int depth) {
+            int size = this.scope.size();
+            for (int i = 0; i < count; i++) {
+                statement(depth);
+            }
+            this.scope.subList(size, this.scope.size()).clear();
+        }
+
+        private void statement(int depth) {
+            switch (this.random.nextInt(depth == 0 ? 3 : 10)) {
+                case 0 -> declaration();
+                case 1, 2 -> assignment();
+                case 3 -> {
+                    this.builder.append("if (").append(boolExpression(2)).append(") {\n");
+                    statements(1 + this.random.nextInt(3), depth - 1);
+                    if (this.random.nextBoolean()) {
+                        this.builder.append("} else {\n");
+                        statements(1 + this.random.nextInt(3), depth - 1);
+                    }
+                    this.builder.append("}\n");
+                }
+                case 4 -> {
+                    this.builder.append("while (").append(boolExpression(2)).append(") {\n");
+                    loopBody(depth);
+                }
+                case 5 -> {
+                    String counter = "i" + this.nextCounter++;
+                    this.builder.append("for (int %s = 0; %s < %d; %s += 1) {\n".formatted(
+                        counter, counter, 1 + this.random.nextInt(4), counter));
+                    this.scope.add(new Variable(counter, false, true));
+                    loopBody(depth);
+                    this.scope.removeLast();
+                }
+                case 6 -> {
+                    this.builder.append("{\n");
+                    statements(1 + this.random.nextInt(3), depth - 1);
+                    this.builder.append("}\n");
+                }
+                case 7 -> this.builder.append("return ").append(intExpression(2)).append(";\n");
+                default -> declaration();
+            }
+        }
+
+        private void loopBody(int depth) {
+            statements(1 + this.random.nextInt(3), depth - 1);
+            if (this.random.nextInt(3) == 0) {
+                this.builder.append(this.random.nextBoolean() ? "break;\n" : "continue;\n");
+            }
+            this.builder.append("}\n");
+        }
+
+        private void declaration() {
+            boolean bool = this.random.nextInt(3) == 0;
+            String name = "v" + this.nextVariable++;
+            this.builder.append(bool ? "bool " : "int ").append(name);
+            boolean initialized = this.random.nextInt(4) != 0;
+            if (initialized) {
+                this.builder.append(" = ").append(bool ? boolExpression(2) : intExpression(2));
+            }
+            this.builder.append(";\n");
+            this.scope.add(new Variable(name, bool, initialized));
+        }
+
+        private void assignment() {
+            if (this.scope.isEmpty()) {
+                declaration();
+                return;
+            }
+            Variable variable = this.scope.get(this.random.nextInt(this.scope.size()));
+            String value = variable.bool() ? boolExpression(2) : intExpression(2);
+            String operator = !variable.bool() && variable.initialized() && this.random.nextBoolean()
+                ? "+=" : "=";
+            this.builder.append("%s %s %s;\n".formatted(variable.name(), operator, value));
+            // the variable may be assigned in a branch only, so it is only initialized in this scope
+            if (!variable.initialized()) {
+                this.scope.add(new Variable(variable.name(), variable.bool(), true));
+            }
+        }
+
+        private String intExpression(int depth) {
+            if (depth == 0 || this.random.nextInt(3) == 0) {
+                String variable = variable(false);
+                return variable != null && this.random.nextBoolean()
+                    ? variable
+                    : Integer.toString(this.random.nextInt(100));
+            }
+            return switch (this.random.nextInt(5)) {
+                case 0 -> "-" + intExpression(depth - 1);
+                case 1 -> "(%s ? %s : %s)".formatted(
+                    boolExpression(depth - 1), intExpression(depth - 1), intExpression(depth - 1));
+                case 2 -> "(%s / %d)".formatted(intExpression(depth - 1), 1 + this.random.nextInt(9));
+                default -> "(%s %s %s)".formatted(intExpression(depth - 1),
+                    this.random.nextBoolean() ? "+" : "*", intExpression(depth - 1));
+            };
+        }
+
+        private String boolExpression(int depth) {
+            if (depth == 0 || this.random.nextInt(3) == 0) {
+                String variable = variable(true);
+                return variable != null && this.random.nextBoolean()
+                    ? variable
+                    : Boolean.toString(this.random.nextBoolean());
+            }
+            return switch (this.random.nextInt(4)) {
+                case 0 -> "!" + boolExpression(depth - 1);
+                case 1 -> "(%s %s %s)".formatted(boolExpression(depth - 1),
+                    this.random.nextBoolean() ? "&&" : "||", boolExpression(depth - 1));
+                default -> "(%s %s %s)".formatted(intExpression(depth - 1),
+                    this.random.nextBoolean() ? "<" : "==", intExpression(depth - 1));
+            };
+        }
+
+        private @Nullable String variable(boolean bool) {
+            List<Variable> candidates = this.scope.stream()
+                .filter(variable -> variable.bool() == bool && variable.initialized())
+                .toList();
+            return candidates.isEmpty() ? null : candidates.get(this.random.nextInt(candidates.size())).name();
+        }
+    }
+}
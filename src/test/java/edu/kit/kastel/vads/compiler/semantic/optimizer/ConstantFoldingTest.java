@@ -0,0 +1,164 @@
+package edu.kit.kastel.vads.compiler.semantic.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import edu.kit.kastel.vads.compiler.Compilation;
+import edu.kit.kastel.vads.compiler.Timings;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.Printer;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.analysis.SemanticAnalysis;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/// Compiles and runs programs whose constant parts [ConstantFolding] evaluates,
+/// and checks that they behave like the generated code would without folding.
+///
+/// Where it matters, the same operation is also computed from variables,
+/// which are not folded, so the folded result is compared with the one computed at runtime.
+class ConstantFoldingTest {
+    /// The exit value of a process killed by `SIGFPE`, which x86 raises for traps of divisions.
+    private static final int DIVISION_TRAP = 128 + 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void wrapsAroundLikeThirtyTwoBitIntegers() throws IOException, InterruptedException {
+        String program = """
+            int main() {
+                int a = 2147483647 + 1;
+                int b = 65536 * 65536 + 3;
+                int c = -(-2147483648);
+                return (a >> 24) + b + (c >> 28);
+            }
+            """;
+        assertFalse(optimized(program).contains("65536"), () -> "not folded:\n" + optimized(program));
+        assertEquals((Integer.MIN_VALUE >> 24) + 3 + (Integer.MIN_VALUE >> 28) & 0xFF, run(program));
+    }
+
+    @Test
+    void keepsDivisionsThatTrap() throws IOException, InterruptedException {
+        String overflow = """
+            int main() {
+                return -2147483648 / -1;
+            }
+            """;
+        assertTrue(optimized(overflow).contains("/"), () -> "folded:\n" + optimized(overflow));
+        assertEquals(DIVISION_TRAP, run(overflow));
+
+        String byZero = """
+            int main() {
+                int x = 5;
+                return x % 0;
+            }
+            """;
+        assertTrue(optimized(byZero).contains("%"), () -> "folded:\n" + optimized(byZero));
+        assertEquals(DIVISION_TRAP, run(byZero));
+    }
+
+    @Test
+    void masksShiftCountsOfThirtyTwoAndMore() throws IOException, InterruptedException {
+        // s is not folded, so the second sum is computed by the generated shifts
+        assertEquals((2 - 1 + 5) * 10 + (2 - 1 + 5), run("""
+            int main() {
+                int s = 33;
+                int folded = (1 << 33) + (-8 >> 35) + (5 << 32);
+                int shifted = (1 << s) + (-8 >> (s + 2)) + (5 << (s - 1));
+                return folded * 10 + shifted;
+            }
+            """));
+    }
+
+    @Test
+    void emitsNegativeResultsAsHexadecimalLiterals() throws IOException, InterruptedException {
+        String program = """
+            int main() {
+                int a = 2;
+                return (0 - 21) / a + 100;
+            }
+            """;
+        assertTrue(optimized(program).contains("0xffffffeb"), () -> "no hexadecimal literal:\n" + optimized(program));
+        assertEquals(-21 / 2 + 100, run(program));
+    }
+
+    @Test
+    void keepsTrappingOperandsOfProductsWithZero() throws IOException, InterruptedException {
+        assertEquals(DIVISION_TRAP, run("""
+            int main() {
+                int a = 0;
+                return (1 / a) * 0;
+            }
+            """));
+        assertEquals(DIVISION_TRAP, run("""
+            int main() {
+                int a = 0;
+                return 0 & (5 % a);
+            }
+            """));
+    }
+
+    @Test
+    void replacesIfWithConstantConditionBySingleStatementBranch() throws IOException, InterruptedException {
+        String program = """
+            int main() {
+                int x = 1;
+                if (true) x = 5; else x = 7;
+                if (false) x += 3;
+                return x;
+            }
+            """;
+        assertFalse(optimized(program).contains("if"), () -> "not folded:\n" + optimized(program));
+        assertEquals(5, run(program));
+    }
+
+    @Test
+    void removesWhileFalseInsideBlock() throws IOException, InterruptedException {
+        String program = """
+            int main() {
+                int x = 1;
+                {
+                    while (false) x = 2;
+                    x += 3;
+                }
+                return x;
+            }
+            """;
+        assertFalse(optimized(program).contains("while"), () -> "not folded:\n" + optimized(program));
+        assertEquals(4, run(program));
+    }
+
+    /// {@return the program after the semantic optimizations, printed back as source}
+    private static String optimized(String source) {
+        ProgramTree program = new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+        Timings timings = Timings.of("program.l2");
+        new SemanticAnalysis(program, timings).analyze();
+        new SemanticOptimization(program, timings).optimize();
+        return Printer.print(program);
+    }
+
+    private int run(String program) throws IOException, InterruptedException {
+        assumeTrue(System.getProperty("os.name").equals("Linux") && System.getProperty("os.arch").equals("amd64"),
+            "the generated binaries only run on x86-64 Linux");
+        Path source = this.directory.resolve("program.l2");
+        Path binary = this.directory.resolve("program");
+        Files.writeString(source, program);
+        assertEquals(Compilation.SUCCESS, new Compilation(source, binary).run());
+        Process process = new ProcessBuilder(binary.toString()).inheritIO().start();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            fail("The program did not terminate");
+        }
+        return process.exitValue();
+    }
+}
@@ -0,0 +1,40 @@
+#!/usr/bin/env sh
+# Records which classes a representative compilation loads and links, and stores them in an
+# ahead-of-time cache next to the installed compiler. The launcher uses it automatically.
+# Run it again after every build, as the cache only matches the exact jars it was trained with.
+set -e
+cd "$(dirname "$0")"
+APP_HOME=build/install/compiler
+LAUNCHER=$APP_HOME/bin/compiler
+if [ ! -x "$LAUNCHER" ]; then
+    echo "The compiler is not installed, run build.sh first" >&2
+    exit 1
+fi
+
+# The cache must be created by the same JVM the launcher uses
+if [ -n "$JAVA_HOME" ]; then
+    JAVACMD=$JAVA_HOME/bin/java
+else
+    JAVACMD=java
+fi
+JAVA_VERSION=$("$JAVACMD" -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')
+
+OUTPUT=$(mktemp -d)
+trap 'rm -rf "$OUTPUT"' EXIT
+rm -f "$APP_HOME/lib/compiler.aot" "$APP_HOME/lib/compiler.jsa"
+# A cache hit would skip the compilation
+unset COMPILER_CACHE
+
+if [ "${JAVA_VERSION%%.*}" -ge 24 ]; then
+    # JEP 483: record the training run, then create the cache from the recording
+    JAVA_OPTS="-XX:AOTMode=record -XX:AOTConfiguration=$OUTPUT/compiler.aotconf" \
+        "$LAUNCHER" src/main/aot/training.l2 "$OUTPUT/training"
+    JAVA_OPTS="-XX:AOTMode=create -XX:AOTConfiguration=$OUTPUT/compiler.aotconf -XX:AOTCache=$APP_HOME/lib/compiler.aot" \
+        "$LAUNCHER" src/main/aot/training.l2 "$OUTPUT/training"
+    echo "Created $APP_HOME/lib/compiler.aot"
+else
+    # Older JVMs only support a dynamic AppCDS archive of the loaded classes
+    JAVA_OPTS="-XX:ArchiveClassesAtExit=$APP_HOME/lib/compiler.jsa -Xlog:cds=error" \
+        "$LAUNCHER" src/main/aot/training.l2 "$OUTPUT/training"
+    echo "Created $APP_HOME/lib/compiler.jsa"
+fi